@@ -0,0 +1,16 @@
+#!/bin/sh
+# Run the benchmarks with the allocation profiler and record the results.
+#
+# Usage: benchmarks/run.sh [name] [JMH options...]
+# Results are written to benchmarks/baselines/<name>.json and .txt, where name defaults to "latest".
+# Compare a run against the committed baseline.json to spot regressions in allocation (gc.alloc.rate.norm)
+# as well as time.
+set -e
+
+cd "$(dirname "$0")"
+
+name=${1:-latest}
+[ $# -gt 0 ] && shift
+
+mkdir -p baselines
+java -jar target/benchmarks.jar -prof gc -rf json -rff "baselines/$name.json" "$@" | tee "baselines/$name.txt"
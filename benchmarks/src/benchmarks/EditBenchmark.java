@@ -0,0 +1,78 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import board.Main;
+import board.Position;
+import board.Recording;
+
+/**
+ * Chains of Main.addTromino and Main.removeTromino, each of which copies the board.
+ * 
+ * The chain places, then removes, the first `edits` trominoes of a 64 x 64 tiling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EditBenchmark
+{
+	private static final int N = 64;
+
+	@Param({"16", "256", "1024"})
+	public int edits;
+
+	private Recording placements;
+	private Main empty;
+	private Main full;
+
+	@Setup
+	public void setup()
+	{
+		Position deficient = new Position(0, 0);
+
+		placements = Recording.record(N, deficient);
+		empty = new Main(N, deficient);
+		full = addChain();
+	}
+
+	@Benchmark
+	public Main addChain()
+	{
+		Main board = empty;
+
+		for (int i = 0; i < edits; i++)
+		{
+			board = board.addTromino(placements.tromino(i), placements.centre(i)).get();
+		}
+
+		return board;
+	}
+
+	@Benchmark
+	public Main removeChain()
+	{
+		Main board = full;
+
+		for (int i = 0; i < edits; i++)
+		{
+			board = board.removeTromino(placements.centre(i)).get();
+		}
+
+		return board;
+	}
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import board.Position;
+import board.Tromino;
+
+/**
+ * The two operations the tiling recursion calls most: Tromino.apply and Position.between.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark
+{
+	@Param({"UR", "UL", "LR", "LL"})
+	public Tromino tromino;
+
+	private Position centre;
+	private Position inside;
+	private Position outside;
+	private Position start;
+	private Position end;
+
+	@Setup
+	public void setup()
+	{
+		centre = new Position(17, 33);
+		inside = new Position(5, 6);
+		outside = new Position(40, 6);
+		start = new Position(0, 0);
+		end = new Position(32, 32);
+	}
+
+	@Benchmark
+	public List<Position> apply()
+	{
+		return tromino.apply(centre);
+	}
+
+	@Benchmark
+	public boolean betweenInside()
+	{
+		return inside.between(start, end);
+	}
+
+	@Benchmark
+	public boolean betweenOutside()
+	{
+		return outside.between(start, end);
+	}
+}
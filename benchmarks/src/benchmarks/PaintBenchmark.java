@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import board.Canvas;
+import board.Main;
+import board.Position;
+
+/**
+ * Canvas.paint of a tiled board into an offscreen 1024 x 1024 image.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark
+{
+	private static final int PIXELS = 1024;
+
+	@Param({"16", "128", "512"})
+	public int n;
+
+	private Canvas canvas;
+	private BufferedImage image;
+
+	@Setup
+	public void setup()
+	{
+		Main board = new Main(n, new Position(n / 3, n / 5));
+		board.tile();
+
+		// Fixed seed so every run paints the same colours.
+		Random r = new Random(0);
+		List<Color> colours = Canvas.generateColours(board.getBoardDimensions(), i -> new Color(r.nextInt(0xFFFFFF)));
+
+		canvas = new Canvas(board, new Dimension(PIXELS, PIXELS), colours);
+		image = new BufferedImage(PIXELS, PIXELS, BufferedImage.TYPE_INT_RGB);
+	}
+
+	@Benchmark
+	public BufferedImage paint()
+	{
+		Graphics gra = image.getGraphics();
+		canvas.paint(gra);
+		gra.dispose();
+		return image;
+	}
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import board.Position;
+import board.Rows;
+
+/**
+ * Row at a time rendering with Rows, to compare with PaintBenchmark.
+ * 
+ * The fork runs with the Vector API; add -jvmArgsAppend -Dtromino.vector=false to measure the scalar loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Djava.awt.headless=true"})
+public class RowsBenchmark
+{
+	@Param({"16", "128", "512", "4096"})
+	public int n;
+
+	private Position deficient;
+	private int[] row;
+
+	@Setup
+	public void setup()
+	{
+		deficient = new Position(n / 3, n / 5);
+		row = new int[n];
+	}
+
+	@Benchmark
+	public int[] pixelsMiddleRow()
+	{
+		Rows.pixels(n, deficient, n / 2, row);
+		return row;
+	}
+
+	@Benchmark
+	public BufferedImage image()
+	{
+		return Rows.image(n, deficient, 1024);
+	}
+}
@@ -0,0 +1,223 @@
+package board;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+
+/**
+ * Replays a Recording, drawing trominoes in the order Main.tile placed them.
+ * 
+ * Trominoes are drawn into an image held by the canvas, at least one pixel per square,
+ * which is scaled to the canvas when painted. Each frame only the squares that changed are repainted. Every frame draws up to maxPerFrame placements,
+ * stopping early once the frame's drawing budget is spent, so the playback rate is
+ * set by maxPerFrame and the budget only keeps the window responsive on large boards.
+ * See Main.animate for the default rate.
+ * 
+ * Trominoes are coloured with Rows.colourOf so every frame of a replay agrees.
+ */
+public class AnimatedCanvas extends JPanel
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The share of each frame spent drawing placements, leaving the rest for Swing to paint.
+	 */
+	private static final double DRAWING_SHARE = 0.5;
+
+	private final Recording recording;
+	private final BufferedImage image;
+	private final Dimension squareSize;
+
+	private final Timer timer;
+	private final long budgetNanos;
+	private final int maxPerFrame;
+
+	private int next;
+
+	/**
+	 * @param recording The placements to replay.
+	 * @param windowSize The size of the canvas in pixels.
+	 * @param framesPerSecond The number of frames drawn each second.
+	 * @param maxPerFrame The most placements drawn in a single frame, however many fit in the budget.
+	 */
+	public AnimatedCanvas(Recording recording, Dimension windowSize, int framesPerSecond, int maxPerFrame)
+	{
+		if (framesPerSecond < 1 || maxPerFrame < 1)
+		{
+			throw new IllegalArgumentException("Frame rate and placements per frame must be positive");
+		}
+
+		this.recording = recording;
+		this.maxPerFrame = maxPerFrame;
+		int n = recording.getBoardSize();
+		this.squareSize = new Dimension(Math.max(1, windowSize.width / n), Math.max(1, windowSize.height / n));
+		this.image = blankImage(new Dimension(squareSize.width * n, squareSize.height * n));
+
+		this.budgetNanos = (long) (DRAWING_SHARE * 1_000_000_000L / framesPerSecond);
+		this.timer = new Timer(1000 / framesPerSecond, e -> frame());
+
+		setSize(windowSize);
+	}
+
+	/**
+	 * Start, or resume, playback.
+	 */
+	public void play()
+	{
+		timer.start();
+	}
+
+	public void pause()
+	{
+		timer.stop();
+	}
+
+	/**
+	 * @return True iff every placement has been drawn.
+	 */
+	public boolean finished()
+	{
+		return next == recording.size();
+	}
+
+	/**
+	 * Draw the placements for one frame and repaint the squares they cover.
+	 */
+	private void frame()
+	{
+		long deadline = System.nanoTime() + budgetNanos;
+		Graphics gra = image.getGraphics();
+
+		for (int drawn = 0; next < recording.size() && drawn < maxPerFrame; drawn++)
+		{
+			// Each placement asks for its own squares, the RepaintManager coalesces the requests into one paint.
+			repaint(onCanvas(draw(gra, recording, next++, squareSize, image.getHeight())));
+
+			if (System.nanoTime() >= deadline)
+			{
+				break;
+			}
+		}
+
+		gra.dispose();
+
+		if (finished())
+		{
+			timer.stop();
+		}
+	}
+
+	/**
+	 * @param drawn An area of the image.
+	 * @return The area of the canvas the image area is scaled to, rounded outwards.
+	 */
+	private Rectangle onCanvas(Rectangle drawn)
+	{
+		int x = (int) ((long) drawn.x * getWidth() / image.getWidth());
+		int y = (int) ((long) drawn.y * getHeight() / image.getHeight());
+		int right = (int) (((long) (drawn.x + drawn.width) * getWidth() + image.getWidth() - 1) / image.getWidth());
+		int bottom = (int) (((long) (drawn.y + drawn.height) * getHeight() + image.getHeight() - 1) / image.getHeight());
+
+		return new Rectangle(x, y, right - x, bottom - y);
+	}
+
+	/**
+	 * Only the area requested by repaint is copied, Swing clips the rest.
+	 */
+	@Override
+	protected void paintComponent(Graphics gra)
+	{
+		gra.drawImage(image, 0, 0, getWidth(), getHeight(), null);
+	}
+
+	/**
+	 * Write a replay to numbered PNG frames without a display.
+	 * 
+	 * Every frame draws the same number of placements, so frames can be joined at a fixed rate.
+	 * Frames are named frame-000000.png, frame-000001.png, and so on; the first frame is the empty board.
+	 * 
+	 * @param recording The placements to replay.
+	 * @param squarePixels The width and height of each square in pixels.
+	 * @param placementsPerFrame The number of placements drawn between frames.
+	 * @param directory The directory to write frames to. It is created if needed.
+	 * @return The number of frames written.
+	 * @throws IOException Iff a frame can not be written.
+	 */
+	public static int writeFrames(Recording recording, int squarePixels, int placementsPerFrame, Path directory) throws IOException
+	{
+		if (squarePixels < 1 || placementsPerFrame < 1)
+		{
+			throw new IllegalArgumentException("Square size and placements per frame must be positive");
+		}
+
+		Files.createDirectories(directory);
+
+		int side = squarePixels * recording.getBoardSize();
+		Dimension squareSize = new Dimension(squarePixels, squarePixels);
+		BufferedImage image = blankImage(new Dimension(side, side));
+		Graphics gra = image.getGraphics();
+
+		int frames = 0;
+		ImageIO.write(image, "png", directory.resolve(frameName(frames++)).toFile());
+
+		for (int i = 0; i < recording.size(); )
+		{
+			for (int end = Math.min(recording.size(), i + placementsPerFrame); i < end; i++)
+			{
+				draw(gra, recording, i, squareSize, side);
+			}
+
+			ImageIO.write(image, "png", directory.resolve(frameName(frames++)).toFile());
+		}
+
+		gra.dispose();
+		return frames;
+	}
+
+	private static String frameName(int frame)
+	{
+		return String.format("frame-%06d.png", frame);
+	}
+
+	private static BufferedImage blankImage(Dimension size)
+	{
+		BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+		Graphics gra = image.getGraphics();
+
+		gra.setColor(Color.black);
+		gra.fillRect(0, 0, size.width, size.height);
+
+		gra.dispose();
+		return image;
+	}
+
+	/**
+	 * Draw a single placement.
+	 * @return The pixels that were drawn.
+	 */
+	private static Rectangle draw(Graphics gra, Recording recording, int i, Dimension squareSize, int height)
+	{
+		Position centre = recording.centre(i);
+		gra.setColor(Rows.colourOf(centre));
+
+		for (Position p : recording.tromino(i).apply(centre))
+		{
+			Canvas.fillSquare(gra, p, squareSize, height);
+		}
+
+		// Every tromino lies within the two by two block whose top right square is its centre.
+		return new Rectangle((centre.getX() - 1) * squareSize.width,
+				height - (centre.getY() + 1) * squareSize.height,
+				2 * squareSize.width,
+				2 * squareSize.height);
+	}
+}
@@ -0,0 +1,66 @@
+package board;
+
+/**
+ * Checks and command line helpers shared by the classes that create or tile boards.
+ * 
+ * Nothing here uses AWT, so Launcher can use it without loading Main.
+ */
+final class Boards
+{
+	private Boards()
+	{
+	}
+
+	/**
+	 * Check the restrictions every board has, which guarantee it can be tiled.
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param missing The missing square on the board. Must be between 0 and n - 1 in both dimensions.
+	 * @throws IllegalArgumentException Iff either restriction is not met.
+	 */
+	static void check(int n, Position missing)
+	{
+		if (!positivePowerOfTwo(n))
+		{
+			throw new IllegalArgumentException("Board size must be a positive power of two");
+		}
+
+		if (!withinBounds(missing, n))
+		{
+			throw new IllegalArgumentException("Missing square must be within the board");
+		}
+	}
+
+	/**
+	 * Determine whether a position is within board size.
+	 * The board's valid positions are (0, 0) to (n - 1, n - 1).
+	 * @param deficient The position of the square to test.
+	 * @param boardSize The size of the board (n).
+	 * @return True iff the board is within (0, 0) and (n - 1, n - 1) inclusive, false otherwise.
+	 */
+	static boolean withinBounds(Position deficient, int boardSize)
+	{
+		return deficient.between(new Position(0,0), new Position(boardSize, boardSize));
+	}
+
+	/**
+	 * Determine whether an integer is a positive power of two.
+	 * @param n The integer to test.
+	 * @return True iff n is a positive power of two, false otherwise.
+	 */
+	static boolean positivePowerOfTwo(int n)
+	{
+		// https://stackoverflow.com/questions/19383248/find-if-a-number-is-a-power-of-two-without-math-function-or-log-function
+		return (n > 0) && ((n & (n - 1)) == 0);
+	}
+
+	/**
+	 * Print a provided message to standard error, and exit with the provided exit code.
+	 * @param message The message to print.
+	 * @param exitCode The exit code to exit with.
+	 */
+	static void printAndExit(String message, int exitCode)
+	{
+		System.err.println(message);
+		System.exit(exitCode);
+	}
+}
@@ -46,6 +46,26 @@ public class Canvas extends JPanel
 		return c;
 	}
 
+	/**
+	 * Fill a single square of the board in the current colour.
+	 * @param gra The graphics to draw to.
+	 * @param p The square, with (0, 0) at the bottom left.
+	 * @param squareSize The size of a square in pixels.
+	 * @param height The height of the drawing area in pixels.
+	 */
+	static void fillSquare(Graphics gra, Position p, Dimension squareSize, int height)
+	{
+		gra.fillRect(p.getX() * squareSize.width,
+				
+				// Graphics in Java are drawn from the top left (0,0), but we consider (0,0) to be the bottom left
+				// so we need to reverse the y axis. To get to the bottom we use height - ...
+				// and we need - squareSize.height because each square is drawn from the top left corner.
+				height - p.getY() * squareSize.height - squareSize.height,
+				
+				squareSize.width,
+				squareSize.height);
+	}
+
 	/**
 	 * Draw each of the generated trominos using generated colours.
 	 */
@@ -63,15 +83,7 @@ public class Canvas extends JPanel
 			gra.setColor(q.next());
 			for (Position p : e.getValue().apply(e.getKey()))
 			{
-				gra.fillRect(p.getX() * squareSize.width,
-						
-						// Graphics in Java are drawn from the top left (0,0), but we consider (0,0) to be the bottom left
-						// so we need to reverse the y axis. To get to the bottom we use getSize.heigh - ...
-						// and we need - squareSize.height because each square is drawn from the top left corner.
-						getSize().height - p.getY() * squareSize.height - squareSize.height,
-						
-						squareSize.width,
-						squareSize.height);
+				fillSquare(gra, p, squareSize, getSize().height);
 			}
 		}
 	}
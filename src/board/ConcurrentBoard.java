@@ -0,0 +1,299 @@
+package board;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A mutable board that many threads may edit at once without a global lock.
+ * 
+ * Unlike Main, which copies its whole map on every addTromino and removeTromino,
+ * a ConcurrentBoard is modified in place. Occupancy is kept in a bitboard with one
+ * bit per square, and squares are claimed and released with compare and set.
+ * 
+ * Placing a tromino is all or nothing: its squares are claimed one at a time and
+ * if any square is already taken the squares claimed so far are released again.
+ * 
+ * The tromino centred at each position is kept in a second array with four bits per
+ * position, 0 meaning no tromino and 1 + ordinal otherwise. A placement becomes visible
+ * to get and remove once its centre has been recorded.
+ * 
+ * The deficient square is occupied from creation and can never be claimed.
+ */
+public class ConcurrentBoard
+{
+	private static final Tromino[] TROMINOES = Tromino.values();
+
+	private static final int CENTRES_PER_WORD = 16;
+	private static final int BITS_PER_CENTRE = 4;
+	private static final long CENTRE_MASK = 0xF;
+
+	private final int n;
+	private final Position deficient;
+
+	private final AtomicLongArray occupied;
+	private final AtomicLongArray centres;
+
+	/**
+	 * Create a new, empty, board.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param missing The missing square on the board. Must be between 0 and n - 1 in both dimensions.
+	 * 
+	 * @throws IllegalArgumentException Iff either restriction is not met.
+	 */
+	public ConcurrentBoard(int n, Position missing)
+	{
+		Boards.check(n, missing);
+
+		this.n = n;
+		this.deficient = missing;
+
+		long squares = (long) n * n;
+		occupied = new AtomicLongArray((int) ((squares + Long.SIZE - 1) / Long.SIZE));
+		centres = new AtomicLongArray((int) ((squares + CENTRES_PER_WORD - 1) / CENTRES_PER_WORD));
+
+		claim(index(missing.getX(), missing.getY()));
+	}
+
+	/**
+	 * @return The width and height of the board in squares.
+	 */
+	public int getSize()
+	{
+		return n;
+	}
+
+	public Position getDeficient()
+	{
+		return deficient;
+	}
+
+	/**
+	 * Place a tromino centred at (x, y).
+	 * 
+	 * Either all three squares of the tromino are claimed or none are. 
+	 * Placement fails if any square is off the board, is the deficient square,
+	 * or is covered by another tromino.
+	 * 
+	 * @param t The tromino to place.
+	 * @param x The x position of the centre of the tromino. See Tromino.java.
+	 * @param y The y position of the centre of the tromino.
+	 * @return True iff the tromino was placed, false otherwise.
+	 */
+	public boolean tryPlace(Tromino t, int x, int y)
+	{
+		List<Position> pieces = t.apply(new Position(x, y));
+
+		for (Position p : pieces)
+		{
+			if (!inBoard(p.getX(), p.getY()))
+			{
+				return false;
+			}
+		}
+
+		for (int i = 0; i < pieces.size(); i++)
+		{
+			if (!claim(index(pieces.get(i).getX(), pieces.get(i).getY())))
+			{
+				// Roll back the squares this call claimed, newest first.
+				for (int j = i - 1; j >= 0; j--)
+				{
+					release(index(pieces.get(j).getX(), pieces.get(j).getY()));
+				}
+
+				return false;
+			}
+		}
+
+		// Every tromino centred at (x, y) covers three of the four squares around (x, y), so
+		// owning our squares means no other placement can be recorded at this centre.
+		setCentre(index(x, y), 0, t.ordinal() + 1);
+
+		return true;
+	}
+
+	/**
+	 * Remove the tromino centred at (x, y).
+	 * 
+	 * @param x The x position of the centre of the tromino.
+	 * @param y The y position of the centre of the tromino.
+	 * @return The removed tromino, or Optional.empty if there is no tromino centred at the position
+	 * or another thread removed it first.
+	 */
+	public Optional<Tromino> remove(int x, int y)
+	{
+		if (!inBoard(x, y))
+		{
+			return Optional.empty();
+		}
+
+		long centre = index(x, y);
+		int code;
+
+		do
+		{
+			code = centreCode(centre);
+
+			if (code == 0)
+			{
+				return Optional.empty();
+			}
+		}
+		while (!setCentre(centre, code, 0));
+
+		// The centre is cleared before the squares are released so that a new placement
+		// over these squares always finds an empty centre.
+		Tromino t = TROMINOES[code - 1];
+
+		for (Position p : t.apply(new Position(x, y)))
+		{
+			release(index(p.getX(), p.getY()));
+		}
+
+		return Optional.of(t);
+	}
+
+	/**
+	 * @param x The x position of the centre.
+	 * @param y The y position of the centre.
+	 * @return The tromino centred at (x, y), or Optional.empty if there is none.
+	 */
+	public Optional<Tromino> get(int x, int y)
+	{
+		if (!inBoard(x, y))
+		{
+			return Optional.empty();
+		}
+
+		int code = centreCode(index(x, y));
+		return code == 0 ? Optional.empty() : Optional.of(TROMINOES[code - 1]);
+	}
+
+	/**
+	 * @return True iff the square at (x, y) is the deficient square or is covered by a tromino.
+	 * Squares off the board are reported as occupied.
+	 */
+	public boolean isOccupied(int x, int y)
+	{
+		if (!inBoard(x, y))
+		{
+			return true;
+		}
+
+		long i = index(x, y);
+		return (occupied.get((int) (i >>> 6)) & (1L << i)) != 0;
+	}
+
+	/**
+	 * A copy of the trominoes on the board, keyed by centre as in Main.getTrominoes.
+	 * 
+	 * The copy is not atomic: placements made or removed while it is taken may or may not appear.
+	 */
+	public Map<Position, Tromino> getTrominoes()
+	{
+		Map<Position, Tromino> copy = new HashMap<>();
+
+		for (int word = 0; word < centres.length(); word++)
+		{
+			long codes = centres.get(word);
+
+			for (int slot = 0; codes != 0; slot++, codes >>>= BITS_PER_CENTRE)
+			{
+				int code = (int) (codes & CENTRE_MASK);
+
+				if (code != 0)
+				{
+					long i = (long) word * CENTRES_PER_WORD + slot;
+					copy.put(new Position((int) (i % n), (int) (i / n)), TROMINOES[code - 1]);
+				}
+			}
+		}
+
+		return copy;
+	}
+
+	private boolean inBoard(int x, int y)
+	{
+		return 0 <= x && x < n && 0 <= y && y < n;
+	}
+
+	private long index(int x, int y)
+	{
+		return (long) y * n + x;
+	}
+
+	/**
+	 * Set the bit for a square if it is clear.
+	 * @return True iff this call set the bit.
+	 */
+	private boolean claim(long i)
+	{
+		int word = (int) (i >>> 6);
+		long mask = 1L << i;
+		long current;
+
+		do
+		{
+			current = occupied.get(word);
+
+			if ((current & mask) != 0)
+			{
+				return false;
+			}
+		}
+		while (!occupied.compareAndSet(word, current, current | mask));
+
+		return true;
+	}
+
+	/**
+	 * Clear the bit for a square. Only the owner of a square may release it.
+	 */
+	private void release(long i)
+	{
+		int word = (int) (i >>> 6);
+		long mask = 1L << i;
+		long current;
+
+		do
+		{
+			current = occupied.get(word);
+		}
+		while (!occupied.compareAndSet(word, current, current & ~mask));
+	}
+
+	private int centreCode(long i)
+	{
+		int shift = (int) (i % CENTRES_PER_WORD) * BITS_PER_CENTRE;
+		return (int) ((centres.get((int) (i / CENTRES_PER_WORD)) >>> shift) & CENTRE_MASK);
+	}
+
+	/**
+	 * Replace the code at a centre if it currently holds the expected code.
+	 * Neighbouring centres share the word, so the swap is retried while only they change.
+	 * @return True iff the code was replaced.
+	 */
+	private boolean setCentre(long i, int expected, int code)
+	{
+		int word = (int) (i / CENTRES_PER_WORD);
+		int shift = (int) (i % CENTRES_PER_WORD) * BITS_PER_CENTRE;
+		long current;
+
+		do
+		{
+			current = centres.get(word);
+
+			if (((current >>> shift) & CENTRE_MASK) != expected)
+			{
+				return false;
+			}
+		}
+		while (!centres.compareAndSet(word, current, (current & ~(CENTRE_MASK << shift)) | ((long) code << shift)));
+
+		return true;
+	}
+}
@@ -0,0 +1,331 @@
+package board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+/**
+ * An editable board with undo and redo.
+ * 
+ * Main.addTromino and Main.removeTromino copy the whole board for every edit, so keeping each
+ * returned Main as history costs a board per edit. A History instead edits a single ConcurrentBoard
+ * in place and keeps a log of the edits, one long per edit packed as in Recording.
+ * Undo, redo and jumpTo apply or reverse logged edits, taking time proportional to the
+ * number of edits moved over.
+ * 
+ * The trominoes on the board are copied into a compact checkpoint once at least `checkpointInterval` edits,
+ * and at least as many edits as there are trominoes on the board, have been made since the last one.
+ * Checkpoints therefore never hold more trominoes in total than the log holds edits, and snapshot
+ * rebuilds any version from the nearest checkpoint without disturbing the board, in time proportional
+ * to the trominoes on the board plus checkpointInterval.
+ * 
+ * Making an edit after undoing discards the undone edits, as in a text editor.
+ * 
+ * A History is not thread safe.
+ */
+public class History
+{
+	public static final int DEFAULT_CHECKPOINT_INTERVAL = 256;
+
+	private final ConcurrentBoard board;
+	private final int checkpointInterval;
+
+	private long[] log = new long[16];
+	private final BitSet removals = new BitSet();
+	private int size;
+
+	private int version;
+
+	// The number of trominoes on the board.
+	private int live;
+
+	// In order of version, the first being the empty board at version 0.
+	private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+	/**
+	 * The trominoes on the board at a version, packed as in Recording.
+	 */
+	private static final class Checkpoint
+	{
+		private final int version;
+		private final long[] trominoes;
+
+		private Checkpoint(int version, long[] trominoes)
+		{
+			this.version = version;
+			this.trominoes = trominoes;
+		}
+	}
+
+	/**
+	 * Create an empty board with a checkpoint every DEFAULT_CHECKPOINT_INTERVAL versions.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param missing The missing square on the board.
+	 * @throws IllegalArgumentException Iff the board is invalid, see Main.
+	 */
+	public History(int n, Position missing)
+	{
+		this(n, missing, DEFAULT_CHECKPOINT_INTERVAL);
+	}
+
+	/**
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param missing The missing square on the board.
+	 * @param checkpointInterval The least number of versions between checkpoints.
+	 * @throws IllegalArgumentException Iff the board is invalid or the interval is not positive.
+	 */
+	public History(int n, Position missing, int checkpointInterval)
+	{
+		if (checkpointInterval < 1)
+		{
+			throw new IllegalArgumentException("Checkpoint interval must be positive");
+		}
+
+		this.board = new ConcurrentBoard(n, missing);
+		this.checkpointInterval = checkpointInterval;
+
+		checkpoints.add(new Checkpoint(0, new long[0]));
+	}
+
+	/**
+	 * The board at the current version. It is for reading only: editing it
+	 * directly leaves the history unable to undo.
+	 */
+	public ConcurrentBoard getBoard()
+	{
+		return board;
+	}
+
+	/**
+	 * @return The current version, the number of edits applied since the board was created.
+	 */
+	public int version()
+	{
+		return version;
+	}
+
+	/**
+	 * @return The latest version that can be redone to.
+	 */
+	public int latest()
+	{
+		return size;
+	}
+
+	/**
+	 * Place a tromino, see ConcurrentBoard.tryPlace. Discards any undone edits if it succeeds.
+	 * @return True iff the tromino was placed.
+	 */
+	public boolean place(Tromino t, int x, int y)
+	{
+		if (!board.tryPlace(t, x, y))
+		{
+			return false;
+		}
+
+		append(Recording.pack(x, y, t), false);
+		return true;
+	}
+
+	/**
+	 * Remove the tromino centred at (x, y), see ConcurrentBoard.remove. Discards any undone edits if it succeeds.
+	 * @return The removed tromino, or Optional.empty if there is no tromino centred at the position.
+	 */
+	public Optional<Tromino> remove(int x, int y)
+	{
+		Optional<Tromino> removed = board.remove(x, y);
+		removed.ifPresent(t -> append(Recording.pack(x, y, t), true));
+		return removed;
+	}
+
+	/**
+	 * Reverse the most recent edit.
+	 * @return True iff there was an edit to undo.
+	 */
+	public boolean undo()
+	{
+		if (version == 0)
+		{
+			return false;
+		}
+
+		version--;
+		apply(log[version], !removals.get(version));
+		return true;
+	}
+
+	/**
+	 * Apply the most recently undone edit again.
+	 * @return True iff there was an edit to redo.
+	 */
+	public boolean redo()
+	{
+		if (version == size)
+		{
+			return false;
+		}
+
+		apply(log[version], removals.get(version));
+		version++;
+		return true;
+	}
+
+	/**
+	 * Undo or redo until the board is at the given version.
+	 * @param target A version between 0 and latest() inclusive.
+	 * @throws IllegalArgumentException Iff the version is out of range.
+	 */
+	public void jumpTo(int target)
+	{
+		if (target < 0 || target > size)
+		{
+			throw new IllegalArgumentException("Version must be between 0 and " + size);
+		}
+
+		while (version > target)
+		{
+			undo();
+		}
+
+		while (version < target)
+		{
+			redo();
+		}
+	}
+
+	/**
+	 * The trominoes on the board at any version, keyed by centre as in Main.getTrominoes.
+	 * Rebuilt from the nearest checkpoint at or before the version; the board is not changed.
+	 * @param v A version between 0 and latest() inclusive.
+	 * @throws IllegalArgumentException Iff the version is out of range.
+	 */
+	public Map<Position, Tromino> snapshot(int v)
+	{
+		if (v < 0 || v > size)
+		{
+			throw new IllegalArgumentException("Version must be between 0 and " + size);
+		}
+
+		Checkpoint checkpoint = checkpointAtOrBefore(v);
+		Map<Position, Tromino> snapshot = new HashMap<>();
+
+		for (long p : checkpoint.trominoes)
+		{
+			snapshot.put(new Position(Recording.unpackX(p), Recording.unpackY(p)), Recording.unpackTromino(p));
+		}
+
+		for (int i = checkpoint.version; i < v; i++)
+		{
+			Position centre = new Position(Recording.unpackX(log[i]), Recording.unpackY(log[i]));
+
+			if (removals.get(i))
+			{
+				snapshot.remove(centre);
+			}
+			else
+			{
+				snapshot.put(centre, Recording.unpackTromino(log[i]));
+			}
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * @return The latest checkpoint at or before version v, by binary search.
+	 */
+	private Checkpoint checkpointAtOrBefore(int v)
+	{
+		int low = 0;
+		int high = checkpoints.size() - 1;
+
+		while (low < high)
+		{
+			int mid = (low + high + 1) >>> 1;
+
+			if (checkpoints.get(mid).version <= v)
+			{
+				low = mid;
+			}
+			else
+			{
+				high = mid - 1;
+			}
+		}
+
+		return checkpoints.get(low);
+	}
+
+	/**
+	 * Log an edit that has been made to the board.
+	 */
+	private void append(long edit, boolean removal)
+	{
+		// A new edit replaces everything that was undone. Stale removal flags past the
+		// end of the log are overwritten as the log grows again.
+		size = version;
+
+		while (checkpoints.get(checkpoints.size() - 1).version > version)
+		{
+			checkpoints.remove(checkpoints.size() - 1);
+		}
+
+		if (size == log.length)
+		{
+			log = Arrays.copyOf(log, size * 2);
+		}
+
+		log[size] = edit;
+		removals.set(size, removal);
+		size++;
+		version++;
+
+		track(removal);
+
+		int since = version - checkpoints.get(checkpoints.size() - 1).version;
+
+		if (since >= checkpointInterval && since >= live)
+		{
+			long[] trominoes = new long[live];
+			int i = 0;
+
+			for (Entry<Position, Tromino> e : board.getTrominoes().entrySet())
+			{
+				trominoes[i++] = Recording.pack(e.getKey().getX(), e.getKey().getY(), e.getValue());
+			}
+
+			checkpoints.add(new Checkpoint(version, trominoes));
+		}
+	}
+
+	/**
+	 * Make a logged edit to the board, or reverse it.
+	 * @param edit The packed tromino.
+	 * @param removal True to remove the tromino, false to place it.
+	 */
+	private void apply(long edit, boolean removal)
+	{
+		int x = Recording.unpackX(edit);
+		int y = Recording.unpackY(edit);
+
+		boolean applied = removal ? board.remove(x, y).isPresent() : board.tryPlace(Recording.unpackTromino(edit), x, y);
+
+		if (!applied)
+		{
+			throw new IllegalStateException("The board was edited outside of its history");
+		}
+
+		track(removal);
+	}
+
+	private void track(boolean removal)
+	{
+		live += removal ? -1 : 1;
+	}
+}
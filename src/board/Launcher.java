@@ -0,0 +1,117 @@
+package board;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * A command line entry point that starts quickly, for scripts that solve many small boards.
+ * 
+ * The tiling is written to standard out in the format of Placements, in the level order of
+ * Orientations.forEach. Neither Main nor any AWT or Swing class is loaded unless --gui is given,
+ * in which case the remaining arguments are passed to Main.main.
+ * 
+ * When the system property tromino.templates names a table written by Templates, boards the
+ * table covers are read from it by memory mapping rather than computed. Building with the
+ * startup profile writes the table and a class data sharing archive for this class to target,
+ * see pom.xml.
+ */
+public final class Launcher
+{
+	private Launcher()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		if (args.length > 0 && args[0].equals("--gui"))
+		{
+			Main.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+
+		try
+		{
+			int boardSize = Integer.parseInt(args[0]);
+			Position deficient = new Position(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+
+			if (!Boards.positivePowerOfTwo(boardSize))
+			{
+				Boards.printAndExit("Board size must be a positive power of two.", -3);
+			}
+
+			if (!Boards.withinBounds(deficient, boardSize))
+			{
+				Boards.printAndExit("Missing square must be within the board.", -4);
+			}
+
+			BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16);
+			Templates templates = templates(boardSize);
+
+			if (templates != null)
+			{
+				templates.forEach(boardSize, deficient, (centre, t) -> write(out, centre, t));
+			}
+			else
+			{
+				Orientations.forEach(boardSize, deficient, (centre, t) -> write(out, centre, t));
+			}
+
+			out.flush();
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			Boards.printAndExit("Usage: boardSize missingSquareX missingSquareY\n"
+					+ "or: --gui followed by the arguments of board.Main", -1);
+		}
+		catch (NumberFormatException e)
+		{
+			Boards.printAndExit("Couldn't parse input.", -2);
+		}
+		catch (IOException | UncheckedIOException e)
+		{
+			Boards.printAndExit("Couldn't write tiling: " + e.getMessage(), -5);
+		}
+	}
+
+	/**
+	 * @return The table named by tromino.templates if it covers boards of size n, null otherwise.
+	 */
+	private static Templates templates(int n)
+	{
+		String file = System.getProperty("tromino.templates");
+
+		if (file == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			Templates templates = Templates.map(Paths.get(file));
+			return templates.covers(n) ? templates : null;
+		}
+		catch (IOException | IllegalArgumentException e)
+		{
+			// The table only saves time, the tiling can always be computed instead.
+			System.err.println("Ignoring templates " + file + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static void write(BufferedWriter out, Position centre, Tromino t)
+	{
+		try
+		{
+			Placements.write(out, centre, t);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -1,14 +1,15 @@
 package board;
 
-import java.awt.Color;
 import java.awt.Dimension;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.Random;
-import java.util.function.Function;
+import java.util.function.BiConsumer;
 
 public class Main
 {
@@ -16,6 +17,12 @@ public class Main
 	private final Position deficient;
 	private final Position maximumAllowedPosition;
 
+	/**
+	 * The tromino placed at the middle of a region when the deficient square is in each quadrant,
+	 * in the order of quadrantsOf: it does not cover that quadrant.
+	 */
+	private static final Tromino[] CENTRE_FOR_QUADRANT = {Tromino.LR, Tromino.LL, Tromino.UR, Tromino.UL};
+
 	/**
 	 * Create a new board to be tiled.
 	 * 
@@ -27,15 +34,7 @@ public class Main
 	 */
 	public Main(int n, Position missing)
 	{
-		if (!positivePowerOfTwo(n))
-		{
-			throw new IllegalArgumentException("Board size must be a positive power of two");
-		}
-
-		if (!withinBounds(missing, n))
-		{
-			throw new IllegalArgumentException("Missing square must be within the board");
-		}
+		Boards.check(n, missing);
 		
 		deficient = missing;
 		maximumAllowedPosition = new Position (n, n);
@@ -60,6 +59,11 @@ public class Main
 		return new Dimension(maximumAllowedPosition.getX(), maximumAllowedPosition.getY());
 	}
 
+	public Position getDeficient()
+	{
+		return deficient;
+	}
+
 	/**
 	 * Add a given tromino to a given position.
 	 *
@@ -120,64 +124,193 @@ public class Main
 	 */
 	public void tile()
 	{
-		tile(new Position(0,0), maximumAllowedPosition);
+		tile((p, t) -> {});
 	}
 
 	/**
-	 * A well known divide and conquer algorithm for tiling deficient boards.
+	 * Automatically tile the current board, reporting each tromino as it is placed.
+	 * 
+	 * @param placed Called with the centre and tromino of every placement, in the order they are placed.
+	 */
+	public void tile(BiConsumer<Position, Tromino> placed)
+	{
+		if (trominoes.isEmpty())
+		{
+			tile(new Position(0,0), maximumAllowedPosition, deficient, placed);
+		}
+		else
+		{
+			tile(new Position(0,0), maximumAllowedPosition, placed);
+		}
+	}
+
+	/**
+	 * Put a tromino on the board as part of tiling it.
+	 */
+	private void place(Position centre, Tromino t, BiConsumer<Position, Tromino> placed)
+	{
+		trominoes.put(centre, t);
+		placed.accept(centre, t);
+	}
+
+	/**
+	 * The same algorithm as tile(start, end) for a region whose only deficient square is known.
+	 * 
+	 * The deficient square of each quadrant is either the region's deficient square or one of the
+	 * squares of the centre tromino, so nothing needs to be searched for and tiling is linear in
+	 * the size of the board. This only holds while tile() places every tromino on the board.
 	 *
 	 * @param start The starting position of the region as defined by Position.between.
 	 * @param end The ending position of the region as defined by Position.between.
+	 * @param hole The deficient square within the region.
+	 * @param placed Called with each tromino as it is placed.
 	 */
-	private void tile(Position start, Position end)
+	private void tile(Position start, Position end, Position hole, BiConsumer<Position, Tromino> placed)
 	{
 		if (isTwoByTwo(start, end))
 		{
-			Optional<Pair<Position,Tromino>> t = tileTwoByTwo(start, end);
-			trominoes.put(t.get().left(), t.get().right());
+			Position center = new Position(start.getX() + 1, start.getY() + 1);
+			place(center, noOverlap(hole, center), placed);
 		}
 		else
-		{	
-			Position middle = new Position((start.getX() + end.getX()) / 2, (start.getY() + end.getY()) / 2);
+		{
+			Position middle = middleOf(start, end);
+			Position[][] quadrants = quadrantsOf(start, end);
+
+			Tromino centre = centreTromino(hole, quadrants);
+			place(middle, centre, placed);
+
+			List<Position> pieces = centre.apply(middle);
+
+			for (Position[] q : quadrants)
+			{
+				tile(q[0], q[1], deficientSquareOf(q[0], q[1], hole, pieces), placed);
+			}
+		}
+	}
+
+	/**
+	 * @param start The starting position of a region as defined by Position.between.
+	 * @param end The ending position of the region.
+	 * @return The middle of the region, where its centre tromino is placed.
+	 */
+	static Position middleOf(Position start, Position end)
+	{
+		return new Position((start.getX() + end.getX()) / 2, (start.getY() + end.getY()) / 2);
+	}
 
-			Position TLS = new Position(start.getX(), middle.getY());
-			Position TLE = new Position(middle.getX(), end.getY());
+	/**
+	 * Split a region into the quadrants tile recurses into.
+	 * 
+	 * @param start The starting position of a region as defined by Position.between.
+	 * @param end The ending position of the region.
+	 * @return The start and end of the top left, top right, lower left and lower right quadrants, in that order.
+	 */
+	static Position[][] quadrantsOf(Position start, Position end)
+	{
+		Position middle = middleOf(start, end);
 
-			Position TRS = middle;
-			Position TRE = end;
+		Position TLS = new Position(start.getX(), middle.getY());
+		Position TLE = new Position(middle.getX(), end.getY());
 
-			Position LLS = start;
-			Position LLE = middle;
+		Position TRS = middle;
+		Position TRE = end;
 
-			Position LRS = new Position(middle.getX(), start.getY());
-			Position LRE = new Position(end.getX(), middle.getY());
+		Position LLS = start;
+		Position LLE = middle;
 
+		Position LRS = new Position(middle.getX(), start.getY());
+		Position LRE = new Position(end.getX(), middle.getY());
 
-			if (hasADeficientSquare(TLS, TLE))
-			{
-				trominoes.put(middle, Tromino.LR);
-			}
-			else if (hasADeficientSquare(TRS, TRE))
+		return new Position[][] {{TLS, TLE}, {TRS, TRE}, {LLS, LLE}, {LRS, LRE}};
+	}
+
+	/**
+	 * The tromino placed at the middle of a region, chosen so it does not cover
+	 * the quadrant that holds the deficient square.
+	 * 
+	 * @param hole The deficient square of the region.
+	 * @param quadrants The quadrants of the region, from quadrantsOf.
+	 * @return The tromino to centre at the middle of the region.
+	 */
+	static Tromino centreTromino(Position hole, Position[][] quadrants)
+	{
+		for (int i = 0; i < quadrants.length - 1; i++)
+		{
+			if (hole.between(quadrants[i][0], quadrants[i][1]))
 			{
-				trominoes.put(middle, Tromino.LL);
+				return CENTRE_FOR_QUADRANT[i];
 			}
-			else if (hasADeficientSquare(LLS, LLE))
+		}
+
+		return CENTRE_FOR_QUADRANT[quadrants.length - 1];
+	}
+
+	/**
+	 * @param start The starting position of a quadrant.
+	 * @param end The ending position of a quadrant.
+	 * @param hole The deficient square of the enclosing region.
+	 * @param pieces The squares of the tromino at the middle of the enclosing region.
+	 * @return The deficient square of the quadrant.
+	 */
+	static Position deficientSquareOf(Position start, Position end, Position hole, List<Position> pieces)
+	{
+		if (hole.between(start, end))
+		{
+			return hole;
+		}
+
+		for (Position p : pieces)
+		{
+			if (p.between(start, end))
 			{
-				trominoes.put(middle, Tromino.UR);
+				return p;
 			}
-			else if (hasADeficientSquare(LRS, LRE))
+		}
+
+		throw new IllegalStateException("Quadrant does not have a deficient square");
+	}
+
+	/**
+	 * A well known divide and conquer algorithm for tiling deficient boards.
+	 *
+	 * @param start The starting position of the region as defined by Position.between.
+	 * @param end The ending position of the region as defined by Position.between.
+	 * @param placed Called with each tromino as it is placed.
+	 */
+	private void tile(Position start, Position end, BiConsumer<Position, Tromino> placed)
+	{
+		if (isTwoByTwo(start, end))
+		{
+			Optional<Pair<Position,Tromino>> t = tileTwoByTwo(start, end);
+			place(t.get().left(), t.get().right(), placed);
+		}
+		else
+		{	
+			Position middle = middleOf(start, end);
+			Position[][] quadrants = quadrantsOf(start, end);
+
+			Tromino centre = null;
+
+			for (int i = 0; i < quadrants.length && centre == null; i++)
 			{
-				trominoes.put(middle, Tromino.UL);
+				if (hasADeficientSquare(quadrants[i][0], quadrants[i][1]))
+				{
+					centre = CENTRE_FOR_QUADRANT[i];
+				}
 			}
-			else
+
+			if (centre == null)
 			{
 				throw new IllegalArgumentException("Area does not have a deficient square");
 			}
 
-			tile(TLS, TLE);
-			tile(TRS, TRE);
-			tile(LLS, LLE);
-			tile(LRS, LRE);
+			place(middle, centre, placed);
+
+			for (Position[] q : quadrants)
+			{
+				tile(q[0], q[1], placed);
+			}
 		}
 	}
 
@@ -312,7 +445,30 @@ public class Main
 
 		for (Position tP : trominoPieces)
 		{
-			if (trominoes.get(tP) != null || d.equals(tP))
+			if (covered(tP) || d.equals(tP))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * A square can only be covered by a tromino centred on it, or centred
+	 * one square to the right, above, or above and to the right of it. See Tromino.java.
+	 * @param square The square to test.
+	 * @return True iff an existing tromino on the board covers the square.
+	 */
+	private boolean covered(Position square)
+	{
+		Position[] centres = {square, Position.right(square), Position.up(square), Position.up(Position.right(square))};
+
+		for (Position c : centres)
+		{
+			Tromino t = trominoes.get(c);
+
+			if (t != null && t.apply(c).contains(square))
 			{
 				return true;
 			}
@@ -331,75 +487,78 @@ public class Main
 			
 			Position deficient = new Position(missingSquareX, missingSquareY);
 			
-			if (!positivePowerOfTwo(boardSize))
+			if (!Boards.positivePowerOfTwo(boardSize))
 			{
-				printAndExit("Board size must be a positive power of two.", -3);
+				Boards.printAndExit("Board size must be a positive power of two.", -3);
 			}
 			
-			if (!withinBounds(deficient, boardSize))
+			if (!Boards.withinBounds(deficient, boardSize))
 			{
-				printAndExit("Missing square must be within the board.", -4);
+				Boards.printAndExit("Missing square must be within the board.", -4);
 			}
 			
-			Main board = new Main(boardSize, deficient);
-			board.tile();
-			
+			if (args.length > 3)
+			{
+				animate(boardSize, deficient, args);
+				return;
+			}
 			
 			Dimension windowSize = new Dimension(1000, 1000);
 			
-			final int minColourValue = 30;
-			final int maxColour = 225;
-			Random r = new Random();
-			
-			Function<Integer, Color> rgb = i -> new Color(minColourValue + r.nextInt(maxColour),
-					minColourValue + r.nextInt(maxColour),
-					minColourValue + r.nextInt(maxColour));
-			
-			
-			new View(new Canvas(board, windowSize, Canvas.generateColours(board.getBoardDimensions(), rgb)));
+			// The canvas renders the tiling a row at a time, so the board itself is never tiled in memory.
+			new View(new RowCanvas(boardSize, deficient, windowSize));
 		}
 		catch (ArrayIndexOutOfBoundsException e)
 		{
-			printAndExit("Missing arguments.\n" + usageInformation(), -1);
+			Boards.printAndExit("Missing arguments.\n" + usageInformation(), -1);
 		}
 		catch (NumberFormatException e)
 		{
-			printAndExit("Couldn't parse input.\n" + usageInformation(), -2);
+			Boards.printAndExit("Couldn't parse input.\n" + usageInformation(), -2);
 		}
 	}
-	
-	/**
-	 * Determine whether a position is within board size.
-	 * The board's valid positions are (0, 0) to (n - 1, n - 1).
-	 * @param deficient The position of the square to test.
-	 * @param boardSize The size of the board (n).
-	 * @return True iff the board is within (0, 0) and (n - 1, n - 1) inclusive, false otherwise.
-	 */
-	private static boolean withinBounds(Position deficient, int boardSize)
-	{
-		return deficient.between(new Position(0,0), new Position(boardSize, boardSize));
-	}
-
-	/**
-	 * Determine whether an integer is a positive power of two.
-	 * @param n The integer to test.
-	 * @return True iff n is a positive power of two, false otherwise.
-	 */
-	private static boolean positivePowerOfTwo(int n)
-	{
-		// https://stackoverflow.com/questions/19383248/find-if-a-number-is-a-power-of-two-without-math-function-or-log-function
-		return (n > 0) && ((n & (n - 1)) == 0);
-	}
 
 	/**
-	 * Print a provided message to standard out, and exit with the provided exit code.
-	 * @param message The message to print.
-	 * @param exitCode The exit code to exit with.
+	 * Replay the tiling of a board, either on screen or into numbered frames.
+	 * @param boardSize The size of the board (n).
+	 * @param deficient The missing square.
+	 * @param args The program arguments, args[3] onwards select the mode. See usageInformation.
 	 */
-	private static void printAndExit(String message, int exitCode)
+	private static void animate(int boardSize, Position deficient, String[] args)
 	{
-		System.err.println(message);
-		System.exit(exitCode);
+		Recording recording = Recording.record(boardSize, deficient);
+		
+		if (args[3].equals("animate"))
+		{
+			final int framesPerSecond = 60;
+			// By default a replay takes about ten seconds, whatever the size of the board.
+			final int defaultSeconds = 10;
+			int maxPerFrame = args.length > 4 ? Integer.parseInt(args[4]) : Math.max(1, recording.size() / (framesPerSecond * defaultSeconds));
+			
+			AnimatedCanvas canvas = new AnimatedCanvas(recording, new Dimension(1000, 1000), framesPerSecond, maxPerFrame);
+			new View(canvas);
+			canvas.play();
+		}
+		else if (args[3].equals("frames"))
+		{
+			Path directory = Paths.get(args[4]);
+			int placementsPerFrame = Integer.parseInt(args[5]);
+			int squarePixels = args.length > 6 ? Integer.parseInt(args[6]) : 1;
+			
+			try
+			{
+				int frames = AnimatedCanvas.writeFrames(recording, squarePixels, placementsPerFrame, directory);
+				System.out.println(frames + " frames written to " + directory);
+			}
+			catch (IOException e)
+			{
+				Boards.printAndExit("Couldn't write frames: " + e.getMessage(), -5);
+			}
+		}
+		else
+		{
+			Boards.printAndExit("Unknown mode " + args[3] + ".\n" + usageInformation(), -1);
+		}
 	}
 	
 	/**
@@ -414,6 +573,12 @@ public class Main
 				+ "For example, in a 2x2 square with the deficient square in the bottom left the call would be:\n"
 				+ "2 0 0\n"
 				+ "Similarly, a 2x2 with the square in the top right woule be:\n"
-				+ "2 1 1";
+				+ "2 1 1\n"
+				+ "\n"
+				+ "To replay the order the trominoes are placed in, add:\n"
+				+ "animate [maxPlacementsPerFrame]\n"
+				+ "By default placements are spread over about ten seconds.\n"
+				+ "To write the replay to numbered PNG frames without a display, add:\n"
+				+ "frames directory placementsPerFrame [squarePixels]";
 	}
 }
@@ -0,0 +1,152 @@
+package board;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Finds the tromino Main.tile places at the middle of any square of the recursion in constant time,
+ * without tiling the board.
+ * 
+ * At level k of the recursion the board is divided into 2^k x 2^k squares of n / 2^k squares each,
+ * level 0 being the whole board. Square (qx, qy) at level k has its bottom left at
+ * (qx * n / 2^k, qy * n / 2^k), and the tromino at its middle is the one that does not cover
+ * the quadrant holding the square's deficient square. See Main.tile.
+ * 
+ * If the board's deficient square is inside the square, its quadrant is given by the next bit of
+ * the deficient square's coordinates. Otherwise the square's deficient square is a corner covered by
+ * a tromino placed higher up. Writing c for a square's position within its parent (one bit for x and one
+ * for y), that corner is either c or the opposite corner ~c, and working down from the level where the
+ * square's ancestors leave the deficient square:
+ * - at that level the corner is ~c, it points back towards the middle that was tiled
+ * - moving to a child diagonally opposite the previous child flips between c and ~c
+ * - moving to a child in the same position keeps it
+ * - moving to any other child resets it to ~c
+ * Each of these is a bit of (qx ^ qx >>> 1) and (qy ^ qy >>> 1), so the corner is found with
+ * a leading zero count, a trailing zero count and a bit count.
+ */
+public final class Orientations
+{
+	/**
+	 * Indexed by the quadrant of the deficient square, x in bit 0 and y in bit 1.
+	 * Lower left is UR, lower right is UL, upper left is LR and upper right is LL,
+	 * which is exactly declaration order.
+	 */
+	private static final Tromino[] BY_QUADRANT = Tromino.values();
+
+	private Orientations()
+	{
+	}
+
+	/**
+	 * The tromino at the middle of a square of the recursion.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2 and at least 2.
+	 * @param hole The deficient square of the board.
+	 * @param level The level of the recursion, 0 being the whole board. Must be less than log2(n).
+	 * @param quadrant The index of the square at that level in Morton order: bit 2i of the index is bit i
+	 * of qx and bit 2i + 1 is bit i of qy.
+	 * @return The tromino placed at the middle of the square.
+	 */
+	public static Tromino centre(int n, Position hole, int level, int quadrant)
+	{
+		return centre(n, hole.getX(), hole.getY(), level, compact(quadrant), compact(quadrant >>> 1));
+	}
+
+	/**
+	 * The tromino at the middle of square (qx, qy) of the given level.
+	 * 
+	 * The arguments are not checked; results for squares off the board, or levels
+	 * below the two by two squares, are meaningless.
+	 * 
+	 * @see #centre(int, Position, int, int)
+	 */
+	public static Tromino centre(int n, int holeX, int holeY, int level, int qx, int qy)
+	{
+		return BY_QUADRANT[holeQuadrant(Integer.numberOfTrailingZeros(n) - level, holeX, holeY, qx, qy)];
+	}
+
+	/**
+	 * @return The position of the middle of square (qx, qy) of the given level, where its tromino is centred.
+	 */
+	public static Position middle(int n, int level, int qx, int qy)
+	{
+		int size = n >> level;
+		return new Position(qx * size + size / 2, qy * size + size / 2);
+	}
+
+	/**
+	 * Visit every tromino of the tiling Main.tile produces, without tiling the board.
+	 * 
+	 * Trominoes are visited in level order: the middle of the whole board first, then the middles of
+	 * the squares of each level in turn, bottom row first and left to right within a row.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2 and at least 2.
+	 * @param hole The deficient square of the board.
+	 * @param placed Called with the centre and tromino of each placement.
+	 */
+	public static void forEach(int n, Position hole, BiConsumer<Position, Tromino> placed)
+	{
+		int levels = Integer.numberOfTrailingZeros(n);
+
+		for (int level = 0; level < levels; level++)
+		{
+			for (int qy = 0; qy < (1 << level); qy++)
+			{
+				for (int qx = 0; qx < (1 << level); qx++)
+				{
+					placed.accept(middle(n, level, qx, qy), BY_QUADRANT[holeQuadrant(levels - level, hole.getX(), hole.getY(), qx, qy)]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The quadrant of a square that holds its deficient square.
+	 * 
+	 * @param shift log2 of the size of the square, at least 1.
+	 * @return The quadrant, x in bit 0 and y in bit 1.
+	 */
+	static int holeQuadrant(int shift, int holeX, int holeY, int qx, int qy)
+	{
+		// Bits where the square's path differs from the path to the board's deficient square.
+		int differs = ((holeX >> shift) ^ qx) | ((holeY >> shift) ^ qy);
+		int inside = ((differs | -differs) >>> 31) ^ 1;
+
+		// The board's deficient square is inside the square: take its next bit.
+		int insideX = (holeX >> (shift - 1)) & 1;
+		int insideY = (holeY >> (shift - 1)) & 1;
+
+		// Bit i of tx and ty compares the square's ancestors i and i + 1 levels up.
+		int tx = qx ^ (qx >>> 1);
+		int ty = qy ^ (qy >>> 1);
+
+		// The level the path leaves the deficient square, and every move to a neighbouring child below it, reset to ~c.
+		int leaves = 31 - Integer.numberOfLeadingZeros(differs);
+		int resets = ((tx ^ ty) & ((1 << leaves) - 1)) | (1 << leaves);
+		int lastReset = Integer.numberOfTrailingZeros(resets);
+
+		// Each diagonal move after the last reset swaps between ~c and c.
+		int opposite = 1 ^ (Integer.bitCount(tx & ty & ((1 << lastReset) - 1)) & 1);
+
+		int outsideX = (qx ^ opposite) & 1;
+		int outsideY = (qy ^ opposite) & 1;
+
+		int choose = -inside;
+		int x = (insideX & choose) | (outsideX & ~choose);
+		int y = (insideY & choose) | (outsideY & ~choose);
+
+		return x | (y << 1);
+	}
+
+	/**
+	 * Gather the even bits of v into the low half.
+	 */
+	private static int compact(int v)
+	{
+		v &= 0x55555555;
+		v = (v | (v >>> 1)) & 0x33333333;
+		v = (v | (v >>> 2)) & 0x0F0F0F0F;
+		v = (v | (v >>> 4)) & 0x00FF00FF;
+		v = (v | (v >>> 8)) & 0x0000FFFF;
+		return v;
+	}
+}
@@ -44,4 +44,13 @@ public class Pair<T,V>
 		
 		return isEqual;
 	}
+	
+	/**
+	 * equals is overridden, so equal pairs must also hash equally.
+	 */
+	@Override
+	public int hashCode()
+	{
+		return 31 * left.hashCode() + right.hashCode();
+	}
 }
@@ -0,0 +1,73 @@
+package board;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BiConsumer;
+
+/**
+ * A plain text format for trominoes written to and read from files.
+ * 
+ * Each line holds one tromino:
+ * x y TROMINO
+ * where (x, y) is the centre of the tromino and TROMINO is the name of a Tromino constant.
+ * For example an upper right tromino centred at (1, 1) is written as:
+ * 1 1 UR
+ */
+public final class Placements
+{
+	private Placements()
+	{
+	}
+
+	/**
+	 * Write a single tromino as one line.
+	 * @param out The writer to write to.
+	 * @param centre The centre of the tromino.
+	 * @param t The tromino.
+	 * @throws IOException Iff the writer fails.
+	 */
+	public static void write(Writer out, Position centre, Tromino t) throws IOException
+	{
+		out.write(Integer.toString(centre.getX()));
+		out.write(' ');
+		out.write(Integer.toString(centre.getY()));
+		out.write(' ');
+		out.write(t.name());
+		out.write('\n');
+	}
+
+	/**
+	 * Read every tromino in a file, in the order they were written.
+	 * @param file The file to read.
+	 * @param placed Called with the centre and tromino of each line.
+	 * @throws IOException Iff the file can not be read.
+	 * @throws IllegalArgumentException Iff a line is not in the format described above.
+	 */
+	public static void read(Path file, BiConsumer<Position, Tromino> placed) throws IOException
+	{
+		try (BufferedReader in = Files.newBufferedReader(file))
+		{
+			String line;
+
+			while ((line = in.readLine()) != null)
+			{
+				if (line.isEmpty())
+				{
+					continue;
+				}
+
+				String[] parts = line.split(" ");
+
+				if (parts.length != 3)
+				{
+					throw new IllegalArgumentException("Malformed tromino line: " + line);
+				}
+
+				placed.accept(new Position(Integer.parseInt(parts[0]), Integer.parseInt(parts[1])), Tromino.valueOf(parts[2]));
+			}
+		}
+	}
+}
@@ -113,6 +113,17 @@ public class Position
 		
 		return equalTo;
 	}
+
+	/**
+	 * Positions are used as map keys (see Main.getTrominoes) so equal positions must hash equally.
+	 */
+	@Override
+	public int hashCode()
+	{
+		// 31 * x + y gives only about 32 * n distinct hashes on an n x n board, so large maps of
+		// positions collide heavily. Multiplying by an odd constant spreads x over every bit.
+		return x * 0x9E3779B1 + y;
+	}
 	
 	/**
 	 * The string form of a Postion is:
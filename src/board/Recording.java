@@ -0,0 +1,160 @@
+package board;
+
+import java.util.Arrays;
+
+/**
+ * The order in which Main.tile places trominoes, stored compactly.
+ * 
+ * Each placement is packed into a single long: the x of the centre in the top 32 bits,
+ * the y of the centre in the next 30 bits, and the ordinal of the tromino in the bottom 2 bits.
+ * A recording of an n x n board therefore takes about 8 * (n * n) / 3 bytes.
+ */
+public class Recording
+{
+	private final int n;
+	private final Position deficient;
+
+	private long[] placements;
+	private int size;
+
+	private Recording(int n, Position deficient)
+	{
+		this.n = n;
+		this.deficient = deficient;
+		this.placements = new long[Math.max(1, (int) (((long) n * n) / 3))];
+	}
+
+	/**
+	 * Record the order in which Main.tile places the trominoes of a board, without tiling it.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param missing The missing square on the board.
+	 * @return The recording.
+	 * @throws IllegalArgumentException Iff the board is invalid, see Main.
+	 */
+	public static Recording record(int n, Position missing)
+	{
+		Boards.check(n, missing);
+
+		Recording r = new Recording(n, missing);
+
+		if (n > 1)
+		{
+			r.record(0, 0, 0);
+		}
+
+		return r;
+	}
+
+	/**
+	 * Record square (qx, qy) of a level of the recursion (see Orientations) depth first, as Main.tile
+	 * places it: the tromino at its middle, then its top left, top right, lower left and lower right quadrants.
+	 */
+	private void record(int level, int qx, int qy)
+	{
+		int half = (n >> level) / 2;
+
+		add(qx * 2 * half + half, qy * 2 * half + half, Orientations.centre(n, deficient.getX(), deficient.getY(), level, qx, qy));
+
+		if (half > 1)
+		{
+			record(level + 1, 2 * qx, 2 * qy + 1);
+			record(level + 1, 2 * qx + 1, 2 * qy + 1);
+			record(level + 1, 2 * qx, 2 * qy);
+			record(level + 1, 2 * qx + 1, 2 * qy);
+		}
+	}
+
+	private void add(int x, int y, Tromino t)
+	{
+		if (size == placements.length)
+		{
+			placements = Arrays.copyOf(placements, size * 2);
+		}
+
+		placements[size++] = pack(x, y, t);
+	}
+
+	/**
+	 * Pack a placement into a long, as described above. 
+	 * @param x The x of the centre, at least 0.
+	 * @param y The y of the centre, between 0 and 2^30 - 1.
+	 * @param t The tromino.
+	 * @return The packed placement.
+	 */
+	public static long pack(int x, int y, Tromino t)
+	{
+		return ((long) x << 32) | ((long) y << 2) | t.ordinal();
+	}
+
+	/**
+	 * @return The x of the centre of a packed placement.
+	 */
+	public static int unpackX(long placement)
+	{
+		return (int) (placement >>> 32);
+	}
+
+	/**
+	 * @return The y of the centre of a packed placement.
+	 */
+	public static int unpackY(long placement)
+	{
+		return (int) ((placement & 0xFFFFFFFFL) >>> 2);
+	}
+
+	/**
+	 * @return The tromino of a packed placement.
+	 */
+	public static Tromino unpackTromino(long placement)
+	{
+		return Tromino.values()[(int) (placement & 3)];
+	}
+
+	public int getBoardSize()
+	{
+		return n;
+	}
+
+	public Position getDeficient()
+	{
+		return deficient;
+	}
+
+	/**
+	 * @return The number of placements.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @param i The index of a placement, 0 being the first tromino placed.
+	 * @return The centre of the i-th tromino placed.
+	 */
+	public Position centre(int i)
+	{
+		long p = placements[checkIndex(i)];
+		return new Position(unpackX(p), unpackY(p));
+	}
+
+	/**
+	 * @param i The index of a placement, 0 being the first tromino placed.
+	 * @return The i-th tromino placed.
+	 */
+	public Tromino tromino(int i)
+	{
+		return unpackTromino(placements[checkIndex(i)]);
+	}
+
+	private int checkIndex(int i)
+	{
+		if (i < 0 || i >= size)
+		{
+			throw new IndexOutOfBoundsException("Placement " + i + " of " + size);
+		}
+
+		return i;
+	}
+}
@@ -0,0 +1,47 @@
+package board;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JPanel;
+
+/**
+ * Draws the tiling Main.tile produces for a board size and deficient square, without tiling the board.
+ * 
+ * The tiling is rendered once by Rows when the canvas is created, and scaled to the canvas on each paint.
+ * Trominoes are coloured by Rows.colourOf, not from a colour list as Canvas colours them.
+ * To draw a board that has been edited, use Canvas.
+ */
+public class RowCanvas extends JPanel
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The largest image of the tiling kept for drawing, larger boards are sampled.
+	 */
+	private static final int MAX_IMAGE_SIDE = 2048;
+
+	private final BufferedImage tiling;
+
+	/**
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param missing The missing square on the board.
+	 * @param windowSize The size of the canvas in pixels.
+	 * @throws IllegalArgumentException Iff the board is invalid as in Main.
+	 */
+	public RowCanvas(int n, Position missing, Dimension windowSize)
+	{
+		Boards.check(n, missing);
+
+		this.tiling = Rows.image(n, missing, MAX_IMAGE_SIDE);
+
+		setSize(windowSize);
+	}
+
+	@Override
+	protected void paintComponent(Graphics gra)
+	{
+		gra.drawImage(tiling, 0, 0, getSize().width, getSize().height, null);
+	}
+}
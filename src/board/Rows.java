@@ -0,0 +1,269 @@
+package board;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+/**
+ * Computes the tiling Main.tile produces one row of squares at a time, without tiling the board.
+ * 
+ * A square is covered by the tromino at the middle of the smallest square of the recursion
+ * that has it as one of its four central squares and does not hold it in the quadrant with
+ * the deficient square (see Orientations). Each row is therefore computed in O(n log n) time
+ * with no memory beyond the row itself.
+ * 
+ * Rows are filled with the Vector API (jdk.incubator.vector) when it is available, which it is
+ * when the JVM is started with --add-modules jdk.incubator.vector, a whole vector of squares
+ * at a time. Otherwise, or when the system property tromino.vector is false, a scalar loop
+ * computing the same values is used.
+ */
+public final class Rows
+{
+	/**
+	 * The value for the deficient square in an orientation row.
+	 */
+	public static final int HOLE = -1;
+
+	private static final int BLACK = 0xFF000000;
+
+	private static final boolean VECTOR = vectorAvailable();
+
+	private Rows()
+	{
+	}
+
+	/**
+	 * @return True iff rows are computed with the Vector API.
+	 */
+	public static boolean vectorised()
+	{
+		return VECTOR;
+	}
+
+	/**
+	 * Fill a row with the orientation of the tromino covering each square.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param hole The deficient square of the board.
+	 * @param y The row, 0 being the bottom of the board.
+	 * @param codes Receives the ordinal of the covering tromino for squares (0, y) to (n - 1, y),
+	 * or HOLE for the deficient square. Must hold at least n values.
+	 */
+	public static void orientations(int n, Position hole, int y, int[] codes)
+	{
+		row(n, hole, y, codes, null);
+	}
+
+	/**
+	 * Fill a row with the ARGB colour of each square, as colourOf colours its tromino.
+	 * The deficient square is black.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param hole The deficient square of the board.
+	 * @param y The row, 0 being the bottom of the board.
+	 * @param argb Receives the colours of squares (0, y) to (n - 1, y). Must hold at least n values.
+	 */
+	public static void pixels(int n, Position hole, int y, int[] argb)
+	{
+		row(n, hole, y, null, argb);
+	}
+
+	/**
+	 * Render the tiled board with one pixel per square, sampling every stride-th square
+	 * in each direction when the board is larger than maxSide.
+	 * 
+	 * Sampled squares are found one at a time with cover, so only they are computed.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param hole The deficient square of the board.
+	 * @param maxSide The largest width and height of the image. Must be a power of 2.
+	 * @return An image of min(n, maxSide) x min(n, maxSide) pixels, the top row being the top of the board.
+	 */
+	public static BufferedImage image(int n, Position hole, int maxSide)
+	{
+		if (!Boards.positivePowerOfTwo(n))
+		{
+			throw new IllegalArgumentException("Board size must be a positive power of two");
+		}
+
+		int side = Math.min(n, maxSide);
+		int stride = n / side;
+
+		BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+		int[] row = new int[side];
+
+		for (int py = 0; py < side; py++)
+		{
+			int y = (side - 1 - py) * stride;
+
+			if (stride == 1)
+			{
+				pixels(n, hole, y, row);
+			}
+			else
+			{
+				for (int px = 0; px < side; px++)
+				{
+					row[px] = argbOf(cover(n, hole.getX(), hole.getY(), px * stride, y));
+				}
+			}
+
+			image.setRGB(0, py, side, 1, row, 0, side);
+		}
+
+		return image;
+	}
+
+	private static void row(int n, Position hole, int y, int[] codes, int[] argb)
+	{
+		if (!Boards.positivePowerOfTwo(n))
+		{
+			throw new IllegalArgumentException("Board size must be a positive power of two");
+		}
+
+		if (y < 0 || y >= n)
+		{
+			throw new IllegalArgumentException("Row must be within the board");
+		}
+
+		if (VECTOR && n >= VectorRows.lanes())
+		{
+			VectorRows.row(n, hole.getX(), hole.getY(), y, codes, argb);
+		}
+		else
+		{
+			scalarRow(n, hole.getX(), hole.getY(), y, codes, argb);
+		}
+	}
+
+	/**
+	 * One square at a time, see cover.
+	 */
+	static void scalarRow(int n, int holeX, int holeY, int y, int[] codes, int[] argb)
+	{
+		for (int x = 0; x < n; x++)
+		{
+			long c = cover(n, holeX, holeY, x, y);
+
+			if (codes != null)
+			{
+				codes[x] = c == HOLE ? HOLE : (int) (c & 3);
+			}
+
+			if (argb != null)
+			{
+				argb[x] = argbOf(c);
+			}
+		}
+	}
+
+	/**
+	 * The tromino covering a single square, checking only the levels at which the square is central.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param x The x position of the square.
+	 * @param y The y position of the square.
+	 * @return The covering tromino packed as Recording.pack packs a placement, or HOLE for the deficient square.
+	 */
+	static long cover(int n, int holeX, int holeY, int x, int y)
+	{
+		int levels = Integer.numberOfTrailingZeros(n);
+
+		for (int shift = 1; shift <= levels; shift++)
+		{
+			int size = 1 << shift;
+			int half = size >> 1;
+
+			if (!central(x, half, size) || !central(y, half, size))
+			{
+				continue;
+			}
+
+			int quadrant = Orientations.holeQuadrant(shift, holeX, holeY, x >> shift, y >> shift);
+			int square = ((x >> (shift - 1)) & 1) | (((y >> (shift - 1)) & 1) << 1);
+
+			if (square != quadrant)
+			{
+				// Tromino ordinals are the quadrant of the deficient square, see Orientations.
+				return ((long) ((x & -size) + half) << 32) | ((long) ((y & -size) + half) << 2) | quadrant;
+			}
+		}
+
+		return HOLE;
+	}
+
+	/**
+	 * @param cover A result of cover.
+	 * @return The ARGB colour of the square, as colourOf colours its tromino, or black for the deficient square.
+	 */
+	static int argbOf(long cover)
+	{
+		return cover == HOLE ? BLACK : BLACK | rgbOf(Recording.unpackX(cover), Recording.unpackY(cover));
+	}
+
+	/**
+	 * @return True iff coordinate v is one of the two central coordinates of its aligned block of the given size.
+	 */
+	private static boolean central(int v, int half, int size)
+	{
+		return ((v + half + 1) & (size - 1)) < 2;
+	}
+
+	/**
+	 * A colour for a tromino that depends only on its centre, so the same tromino is given
+	 * the same colour whichever part of the board is drawn, by TileServer, RowCanvas or AnimatedCanvas.
+	 * Canvas colours trominoes from the list it is given instead.
+	 * 
+	 * pixels computes the same colours a row at a time.
+	 * @param centre The centre of the tromino.
+	 * @return The colour of the tromino.
+	 */
+	public static Color colourOf(Position centre)
+	{
+		return new Color(rgbOf(centre.getX(), centre.getY()));
+	}
+
+	/**
+	 * The colour for a tromino, see colourOf.
+	 * Each component is 30 + (a hash byte * 225) / 256, between 30 and 254.
+	 * @return The colour as 0xRRGGBB.
+	 */
+	static int rgbOf(int centreX, int centreY)
+	{
+		int h = centreX * 0x9E3779B1 ^ centreY * 0x85EBCA6B;
+		h ^= h >>> 16;
+		h *= 0x7FEB352D;
+		h ^= h >>> 15;
+
+		return (component(h >>> 16) << 16) | (component(h >>> 8) << 8) | component(h);
+	}
+
+	private static int component(int h)
+	{
+		final int minColourValue = 30;
+		final int maxColour = 225;
+
+		return minColourValue + (((h & 0xFF) * maxColour) >>> 8);
+	}
+
+	private static boolean vectorAvailable()
+	{
+		if (!Boolean.parseBoolean(System.getProperty("tromino.vector", "true")))
+		{
+			return false;
+		}
+
+		if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent())
+		{
+			return false;
+		}
+
+		try
+		{
+			return VectorRows.lanes() > 1;
+		}
+		catch (LinkageError e)
+		{
+			return false;
+		}
+	}
+}
@@ -0,0 +1,285 @@
+package board;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+import board.ShardedBoard.Shard;
+
+/**
+ * Tiles a board that is too big for one process by splitting it between worker processes.
+ * 
+ * Once the tromino at the middle of a region is placed, each quadrant of the region has exactly
+ * one deficient square and can be tiled independently of the others (see Main.tile).
+ * The coordinator places the middle trominoes of the top levels of the recursion itself,
+ * then starts one ShardWorker process for each of the remaining quadrants.
+ * 
+ * With levels = k there are 4^k shards, each (n / 2^k) x (n / 2^k) squares.
+ * Each worker holds its whole shard in memory, so the worker heap (see workerOptions) must fit
+ * one shard, and the machine must fit `processes` such heaps at once.
+ */
+public class ShardCoordinator
+{
+	public static final String CENTRES_FILE = "centres.txt";
+
+	private final int n;
+	private final Position deficient;
+	private final int levels;
+	private final Path directory;
+	private final int processes;
+	private final List<String> workerOptions;
+
+	/**
+	 * Create a coordinator whose workers are started with this JVM's heap options (-Xmx and -Xms).
+	 * @see #ShardCoordinator(int, Position, int, Path, int, List)
+	 */
+	public ShardCoordinator(int n, Position missing, int levels, Path directory, int processes)
+	{
+		this(n, missing, levels, directory, processes, ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+				.filter(a -> a.startsWith("-Xmx") || a.startsWith("-Xms"))
+				.collect(Collectors.toList()));
+	}
+
+	/**
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param missing The missing square on the board.
+	 * @param levels The number of levels of the recursion tiled by the coordinator. Shards must be at least 2 x 2.
+	 * @param directory The directory the centre file and shard files are written to.
+	 * @param processes The maximum number of worker processes running at once.
+	 * @param workerOptions JVM options for each worker process, such as -Xmx512m.
+	 * 
+	 * @throws IllegalArgumentException Iff the board is invalid as in Main, or the levels or processes are out of range.
+	 */
+	public ShardCoordinator(int n, Position missing, int levels, Path directory, int processes, List<String> workerOptions)
+	{
+		Boards.check(n, missing);
+
+		if (levels < 0 || (n >> levels) < 2)
+		{
+			throw new IllegalArgumentException("Shards must be at least two by two");
+		}
+
+		if (processes < 1)
+		{
+			throw new IllegalArgumentException("At least one worker process is required");
+		}
+
+		this.n = n;
+		this.deficient = missing;
+		this.levels = levels;
+		this.directory = directory;
+		this.processes = processes;
+		this.workerOptions = new ArrayList<>(workerOptions);
+	}
+
+	/**
+	 * Place the centre trominoes of the top levels and divide the rest of the board into shards.
+	 * 
+	 * @param centres Receives the centre trominoes.
+	 * @return The shards in row major order from the bottom left.
+	 */
+	List<Shard> plan(Map<Position, Tromino> centres)
+	{
+		int size = n >> levels;
+		int perRow = n / size;
+
+		Shard[] shards = new Shard[perRow * perRow];
+		split(new Position(0, 0), new Position(n, n), deficient, levels, centres, shards);
+
+		return Arrays.asList(shards);
+	}
+
+	/**
+	 * Follows the recursion in Main.tile down to the shard level.
+	 */
+	private void split(Position start, Position end, Position hole, int level, Map<Position, Tromino> centres, Shard[] shards)
+	{
+		if (level == 0)
+		{
+			int size = end.getX() - start.getX();
+			int index = (start.getY() / size) * (n / size) + start.getX() / size;
+
+			shards[index] = new Shard(start, size, hole, directory.resolve(String.format("shard-%d-%d.txt", start.getX(), start.getY())));
+			return;
+		}
+
+		Position middle = Main.middleOf(start, end);
+		Position[][] quadrants = Main.quadrantsOf(start, end);
+
+		Tromino centre = Main.centreTromino(hole, quadrants);
+		centres.put(middle, centre);
+
+		List<Position> pieces = centre.apply(middle);
+
+		for (Position[] q : quadrants)
+		{
+			split(q[0], q[1], Main.deficientSquareOf(q[0], q[1], hole, pieces), level - 1, centres, shards);
+		}
+	}
+
+	/**
+	 * Tile the board, running at most `processes` workers at once.
+	 * 
+	 * @return The tiled board.
+	 * @throws IOException Iff a file can not be written or a worker can not be started.
+	 * @throws IllegalStateException Iff a worker fails.
+	 * @throws InterruptedException Iff interrupted while waiting for a worker. Running workers are destroyed.
+	 */
+	public ShardedBoard run() throws IOException, InterruptedException
+	{
+		Files.createDirectories(directory);
+
+		Map<Position, Tromino> centres = new HashMap<>();
+		List<Shard> shards = plan(centres);
+
+		Path centresFile = directory.resolve(CENTRES_FILE);
+
+		try (BufferedWriter w = Files.newBufferedWriter(centresFile))
+		{
+			for (Entry<Position, Tromino> e : centres.entrySet())
+			{
+				Placements.write(w, e.getKey(), e.getValue());
+			}
+		}
+
+		Set<Process> running = new HashSet<>();
+		BlockingQueue<Process> exited = new LinkedBlockingQueue<>();
+
+		try
+		{
+			for (Shard s : shards)
+			{
+				if (running.size() == processes)
+				{
+					awaitWorker(running, exited);
+				}
+
+				Process p = startWorker(s);
+				running.add(p);
+				p.onExit().thenAccept(exited::add);
+			}
+
+			while (!running.isEmpty())
+			{
+				awaitWorker(running, exited);
+			}
+		}
+		finally
+		{
+			running.forEach(Process::destroy);
+		}
+
+		return new ShardedBoard(n, deficient, centresFile, shards);
+	}
+
+	/**
+	 * Start a worker JVM with the same Java installation and class path as this one, and the worker options.
+	 */
+	private Process startWorker(Shard s) throws IOException
+	{
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+
+		List<String> command = new ArrayList<>();
+		command.add(java);
+		command.addAll(workerOptions);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(ShardWorker.class.getName());
+		command.add(Integer.toString(s.getSize()));
+		command.add(Integer.toString(s.getHole().getX() - s.getOrigin().getX()));
+		command.add(Integer.toString(s.getHole().getY() - s.getOrigin().getY()));
+		command.add(Integer.toString(s.getOrigin().getX()));
+		command.add(Integer.toString(s.getOrigin().getY()));
+		command.add(s.getFile().toAbsolutePath().toString());
+
+		return new ProcessBuilder(command)
+				.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+	}
+
+	/**
+	 * Wait for whichever running worker exits next, in any order.
+	 * @throws IllegalStateException Iff the worker failed.
+	 */
+	private static void awaitWorker(Set<Process> running, BlockingQueue<Process> exited) throws InterruptedException
+	{
+		Process p = exited.take();
+		running.remove(p);
+
+		int exitCode = p.exitValue();
+
+		if (exitCode != 0)
+		{
+			throw new IllegalStateException("Shard worker " + p.pid() + " exited with " + exitCode);
+		}
+	}
+
+	public static void main(String[] args)
+	{
+		try
+		{
+			int boardSize = Integer.parseInt(args[0]);
+			Position deficient = new Position(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+			int levels = Integer.parseInt(args[3]);
+			Path directory = Paths.get(args[4]);
+			int processes = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+			ShardCoordinator coordinator = args.length > 6
+					? new ShardCoordinator(boardSize, deficient, levels, directory, processes, Arrays.asList(args).subList(6, args.length))
+					: new ShardCoordinator(boardSize, deficient, levels, directory, processes);
+
+			ShardedBoard board = coordinator.run();
+
+			Path merged = directory.resolve("board.txt");
+			board.merge(merged);
+
+			System.out.println(merged);
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			Boards.printAndExit("Missing arguments.\n" + usageInformation(), -1);
+		}
+		catch (NumberFormatException e)
+		{
+			Boards.printAndExit("Couldn't parse input.\n" + usageInformation(), -2);
+		}
+		catch (IllegalArgumentException | IllegalStateException e)
+		{
+			Boards.printAndExit(e.getMessage(), -3);
+		}
+		catch (IOException e)
+		{
+			Boards.printAndExit("Couldn't write board: " + e.getMessage(), -5);
+		}
+		catch (InterruptedException e)
+		{
+			Boards.printAndExit("Interrupted", -6);
+		}
+	}
+
+	private static String usageInformation()
+	{
+		return ""
+				+ "Usage: boardSize missingSquareX missingSquareY levels outputDirectory [processes [workerOptions...]]\n"
+				+ "levels is the number of levels of the recursion tiled before the board is split, giving 4^levels shards.\n"
+				+ "processes is the number of worker processes run at once, by default the number of processors.\n"
+				+ "workerOptions are JVM options for each worker, such as -Xmx512m. By default this JVM's -Xmx and -Xms are used.\n"
+				+ "The merged board is written to outputDirectory" + File.separator + "board.txt";
+	}
+}
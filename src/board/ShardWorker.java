@@ -0,0 +1,62 @@
+package board;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Tiles one shard of a larger board in its own process. Started by ShardCoordinator.
+ * 
+ * A quadrant of the recursion in Main.tile is tiled exactly as a board of the quadrant's size
+ * with the quadrant's deficient square, so the worker tiles that smaller board and moves
+ * each tromino by the quadrant's origin as it writes it out in the format of Placements.
+ */
+public class ShardWorker
+{
+	public static void main(String[] args)
+	{
+		try
+		{
+			int size = Integer.parseInt(args[0]);
+			Position hole = new Position(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+			Position origin = new Position(Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+			Path out = Paths.get(args[5]);
+
+			Main shard = new Main(size, hole);
+			shard.tile();
+
+			try (BufferedWriter w = Files.newBufferedWriter(out))
+			{
+				shard.getTrominoes().forEach((centre, t) -> {
+					try
+					{
+						Placements.write(w, new Position(centre.getX() + origin.getX(), centre.getY() + origin.getY()), t);
+					}
+					catch (IOException e)
+					{
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			Boards.printAndExit("Usage: size holeX holeY originX originY outputFile", -1);
+		}
+		catch (NumberFormatException e)
+		{
+			Boards.printAndExit("Couldn't parse input.", -2);
+		}
+		catch (IllegalArgumentException e)
+		{
+			Boards.printAndExit(e.getMessage(), -3);
+		}
+		catch (IOException | UncheckedIOException e)
+		{
+			Boards.printAndExit("Couldn't write shard: " + e.getMessage(), -5);
+		}
+	}
+}
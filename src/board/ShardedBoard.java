@@ -0,0 +1,171 @@
+package board;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * A tiled board stored as several files, as produced by ShardCoordinator.
+ * 
+ * The trominoes at the middle of the top levels of the recursion are kept in one file and
+ * every shard, an equally sized square quadrant of the board, is kept in a file of its own.
+ * All files are in the format of Placements and use board coordinates.
+ */
+public class ShardedBoard
+{
+	/**
+	 * One square quadrant of the board and the file its trominoes were written to.
+	 */
+	public static class Shard
+	{
+		private final Position origin;
+		private final int size;
+		private final Position hole;
+		private final Path file;
+
+		public Shard(Position origin, int size, Position hole, Path file)
+		{
+			this.origin = origin;
+			this.size = size;
+			this.hole = hole;
+			this.file = file;
+		}
+
+		/**
+		 * @return The bottom left square of the shard.
+		 */
+		public Position getOrigin()
+		{
+			return origin;
+		}
+
+		/**
+		 * @return The width and height of the shard in squares.
+		 */
+		public int getSize()
+		{
+			return size;
+		}
+
+		/**
+		 * @return The deficient square of the shard in board coordinates. This is either the
+		 * board's deficient square or a square covered by one of the centre trominoes.
+		 */
+		public Position getHole()
+		{
+			return hole;
+		}
+
+		public Path getFile()
+		{
+			return file;
+		}
+	}
+
+	private final int n;
+	private final Position deficient;
+	private final Path centres;
+
+	// Row major from the bottom left shard.
+	private final List<Shard> shards;
+	private final int shardsPerRow;
+
+	ShardedBoard(int n, Position deficient, Path centres, List<Shard> shards)
+	{
+		this.n = n;
+		this.deficient = deficient;
+		this.centres = centres;
+		this.shards = shards;
+		this.shardsPerRow = n / shards.get(0).getSize();
+	}
+
+	public int getSize()
+	{
+		return n;
+	}
+
+	public Position getDeficient()
+	{
+		return deficient;
+	}
+
+	/**
+	 * @return The file holding the trominoes placed by the coordinator.
+	 */
+	public Path getCentres()
+	{
+		return centres;
+	}
+
+	public List<Shard> getShards()
+	{
+		return Collections.unmodifiableList(shards);
+	}
+
+	/**
+	 * @param p A square on the board.
+	 * @return The shard that contains the square, or Optional.empty if the square is not on the board.
+	 */
+	public Optional<Shard> shardAt(Position p)
+	{
+		if (!Boards.withinBounds(p, n))
+		{
+			return Optional.empty();
+		}
+
+		int size = shards.get(0).getSize();
+		return Optional.of(shards.get((p.getY() / size) * shardsPerRow + p.getX() / size));
+	}
+
+	/**
+	 * Read every tromino on the board, the centre trominoes first and then each shard in turn.
+	 * @param placed Called with the centre and tromino of each tromino.
+	 * @throws IOException Iff a file can not be read.
+	 */
+	public void read(BiConsumer<Position, Tromino> placed) throws IOException
+	{
+		Placements.read(centres, placed);
+
+		for (Shard s : shards)
+		{
+			Placements.read(s.getFile(), placed);
+		}
+	}
+
+	/**
+	 * Read the whole board into memory, keyed by centre as in Main.getTrominoes.
+	 * Only suitable for boards that fit in memory.
+	 * @throws IOException Iff a file can not be read.
+	 */
+	public Map<Position, Tromino> getTrominoes() throws IOException
+	{
+		Map<Position, Tromino> trominoes = new HashMap<>();
+		read(trominoes::put);
+		return trominoes;
+	}
+
+	/**
+	 * Concatenate the centre file and every shard into a single file.
+	 * @param out The file to write. It is replaced if it exists.
+	 * @throws IOException Iff a file can not be read or written.
+	 */
+	public void merge(Path out) throws IOException
+	{
+		try (OutputStream o = Files.newOutputStream(out))
+		{
+			Files.copy(centres, o);
+
+			for (Shard s : shards)
+			{
+				Files.copy(s.getFile(), o);
+			}
+		}
+	}
+}
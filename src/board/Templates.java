@@ -0,0 +1,213 @@
+package board;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * A precomputed table of the tilings of every small board, read by memory mapping the file it is stored in.
+ * 
+ * The file starts with MAGIC and the largest board size in the table, as two big endian ints.
+ * Then for each board size n = 2, 4, ... up to the largest, and for each deficient square in
+ * row order (the square at (x, y) being number y * n + x), comes one byte per tromino: its ordinal,
+ * with the trominoes in the level order of Orientations.forEach. Centres are not stored as they are
+ * the same for every deficient square of a size.
+ * 
+ * Written by running this class, see main.
+ */
+public final class Templates
+{
+	/**
+	 * "TROM" in ASCII.
+	 */
+	public static final int MAGIC = 0x54524F4D;
+
+	/**
+	 * The largest table main will write, at roughly 5.6 MB.
+	 */
+	public static final int MAX_SIZE = 64;
+
+	private static final int HEADER = 8;
+
+	private static final Tromino[] BY_ORDINAL = Tromino.values();
+
+	private final ByteBuffer table;
+	private final int maxSize;
+
+	private Templates(ByteBuffer table)
+	{
+		if (table.capacity() < HEADER || table.getInt(0) != MAGIC)
+		{
+			throw new IllegalArgumentException("Not a template table");
+		}
+
+		this.table = table;
+		this.maxSize = table.getInt(4);
+
+		if (!validSize(maxSize) || table.capacity() < offset(maxSize * 2))
+		{
+			throw new IllegalArgumentException("Template table is truncated or malformed");
+		}
+	}
+
+	/**
+	 * Memory map a table written by write. The mapping stays valid after the file channel is closed.
+	 * @param file The table.
+	 * @return The templates in the table.
+	 * @throws IOException Iff the file can not be read.
+	 * @throws IllegalArgumentException Iff the file is not a template table.
+	 */
+	public static Templates map(Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			return new Templates(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * @return The largest board size in the table.
+	 */
+	public int getMaxSize()
+	{
+		return maxSize;
+	}
+
+	/**
+	 * @return True iff the table holds the tilings of boards of size n.
+	 */
+	public boolean covers(int n)
+	{
+		return validSize(n) && n <= maxSize;
+	}
+
+	/**
+	 * Visit every tromino of a tiling in the table, in the same order as Orientations.forEach.
+	 * @param n The board size. The table must cover it.
+	 * @param hole The deficient square. Must be on the board.
+	 * @param placed Called with the centre and tromino of each placement.
+	 */
+	public void forEach(int n, Position hole, BiConsumer<Position, Tromino> placed)
+	{
+		int levels = Integer.numberOfTrailingZeros(n);
+		int i = offset(n) + (hole.getY() * n + hole.getX()) * count(n);
+
+		for (int level = 0; level < levels; level++)
+		{
+			for (int qy = 0; qy < (1 << level); qy++)
+			{
+				for (int qx = 0; qx < (1 << level); qx++)
+				{
+					placed.accept(Orientations.middle(n, level, qx, qy), BY_ORDINAL[table.get(i++)]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Write the tilings of every board up to a size.
+	 * @param file The file to write to, replacing it if it exists.
+	 * @param maxSize The largest board size. Must be a power of two between 2 and MAX_SIZE.
+	 * @throws IOException Iff the file can not be written.
+	 */
+	public static void write(Path file, int maxSize) throws IOException
+	{
+		if (!validSize(maxSize) || maxSize > MAX_SIZE)
+		{
+			throw new IllegalArgumentException("Largest size must be a power of two between 2 and " + MAX_SIZE);
+		}
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file))))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(maxSize);
+
+			for (int n = 2; n <= maxSize; n *= 2)
+			{
+				for (int y = 0; y < n; y++)
+				{
+					for (int x = 0; x < n; x++)
+					{
+						Orientations.forEach(n, new Position(x, y), (centre, t) -> {
+							try
+							{
+								out.writeByte(t.ordinal());
+							}
+							catch (IOException e)
+							{
+								throw new UncheckedIOException(e);
+							}
+						});
+					}
+				}
+			}
+		}
+		catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * @return The number of trominoes on a board of size n, one per square of the recursion.
+	 */
+	private static int count(int n)
+	{
+		return (n * n - 1) / 3;
+	}
+
+	/**
+	 * @return The position in the table of the tilings of boards of size n.
+	 */
+	private static int offset(int n)
+	{
+		int offset = HEADER;
+
+		for (int m = 2; m < n; m *= 2)
+		{
+			offset += m * m * count(m);
+		}
+
+		return offset;
+	}
+
+	private static boolean validSize(int n)
+	{
+		return n >= 2 && (n & (n - 1)) == 0;
+	}
+
+	public static void main(String[] args)
+	{
+		try
+		{
+			Path out = Paths.get(args[0]);
+			int maxSize = Integer.parseInt(args[1]);
+
+			write(out, maxSize);
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			Boards.printAndExit("Usage: outputFile maxBoardSize", -1);
+		}
+		catch (NumberFormatException e)
+		{
+			Boards.printAndExit("Couldn't parse input.", -2);
+		}
+		catch (IllegalArgumentException e)
+		{
+			Boards.printAndExit(e.getMessage(), -3);
+		}
+		catch (IOException e)
+		{
+			Boards.printAndExit("Couldn't write templates: " + e.getMessage(), -5);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package board;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors shared by the services in this package.
+ */
+final class Threads
+{
+	private Threads()
+	{
+	}
+
+	/**
+	 * An executor that runs each task on a thread of its own.
+	 * 
+	 * On Java 21 and later the threads are virtual threads, so blocking tasks are cheap.
+	 * On older runtimes the method does not exist and a cached pool of daemon threads is used instead.
+	 * 
+	 * @param name The name given to pool threads.
+	 * @return A new executor. The caller is responsible for shutting it down.
+	 */
+	static ExecutorService newPerTaskExecutor(String name)
+	{
+		try
+		{
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			return Executors.newCachedThreadPool(r -> {
+				Thread t = new Thread(r, name);
+				t.setDaemon(true);
+				return t;
+			});
+		}
+	}
+}
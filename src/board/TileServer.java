@@ -0,0 +1,286 @@
+package board;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+
+import javax.imageio.ImageIO;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves a tiled board as a pyramid of 256 x 256 PNG map tiles at /{z}/{x}/{y}.
+ * 
+ * At zoom z the board is divided into 2^z x 2^z tiles, with tile (0, 0) at the top left
+ * as web map viewers expect. Each pixel of a tile is coloured by the tromino covering its square,
+ * found without tiling the board (see Rows), so nothing is rendered until it is requested.
+ * 
+ * Tiles are served from zoom 0, the whole board in one tile, to the zoom where a tile covers
+ * a single square. Where a tile covers more than 256 x 256 squares, the squares are sampled.
+ * 
+ * Encoded tiles are kept in a least recently used cache. Requests are handled on
+ * virtual threads where the runtime supports them, see Threads.
+ */
+public class TileServer
+{
+	public static final int TILE_SIZE = 256;
+
+	private final int n;
+	private final Position deficient;
+	private final int maxZoom;
+	private final int minZoom;
+
+	private final Map<String, byte[]> cache;
+
+	private HttpServer server;
+	private ExecutorService executor;
+
+	/**
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param missing The missing square on the board.
+	 * @param cachedTiles The maximum number of encoded tiles to keep.
+	 * 
+	 * @throws IllegalArgumentException Iff the board is invalid as in Main, or the cache size is not positive.
+	 */
+	public TileServer(int n, Position missing, int cachedTiles)
+	{
+		Boards.check(n, missing);
+
+		if (cachedTiles < 1)
+		{
+			throw new IllegalArgumentException("The cache must hold at least one tile");
+		}
+
+		this.n = n;
+		this.deficient = missing;
+		this.maxZoom = Integer.numberOfTrailingZeros(n);
+		this.minZoom = 0;
+
+		this.cache = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<String, byte[]> eldest)
+			{
+				return size() > cachedTiles;
+			}
+		};
+	}
+
+	/**
+	 * Start serving tiles.
+	 * @param address The address to listen on. Port 0 picks a free port.
+	 * @throws IOException Iff the server can not be started.
+	 */
+	public void start(InetSocketAddress address) throws IOException
+	{
+		server = HttpServer.create(address, 0);
+		executor = Threads.newPerTaskExecutor("tile-server");
+
+		server.createContext("/", this::handle);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * Stop serving tiles, waiting at most delaySeconds for open requests to finish.
+	 */
+	public void stop(int delaySeconds)
+	{
+		server.stop(delaySeconds);
+		executor.shutdown();
+	}
+
+	/**
+	 * @return The address the server is listening on.
+	 */
+	public InetSocketAddress getAddress()
+	{
+		return server.getAddress();
+	}
+
+	public int getMinZoom()
+	{
+		return minZoom;
+	}
+
+	public int getMaxZoom()
+	{
+		return maxZoom;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException
+	{
+		try
+		{
+			if (!"GET".equals(exchange.getRequestMethod()))
+			{
+				respond(exchange, 405, "text/plain", "Only GET is supported".getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+
+			String[] parts = exchange.getRequestURI().getPath().split("/");
+
+			if (parts.length != 4)
+			{
+				respond(exchange, 404, "text/plain", "Tiles are at /{z}/{x}/{y}".getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+
+			int z = Integer.parseInt(parts[1]);
+			int x = Integer.parseInt(parts[2]);
+			int y = Integer.parseInt(parts[3]);
+
+			if (z < minZoom || z > maxZoom || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z))
+			{
+				respond(exchange, 404, "text/plain", String.format("Zoom must be between %d and %d and the tile must be on the board", minZoom, maxZoom).getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+
+			respond(exchange, 200, "image/png", tile(z, x, y));
+		}
+		catch (NumberFormatException e)
+		{
+			respond(exchange, 400, "text/plain", "Couldn't parse tile coordinates".getBytes(StandardCharsets.UTF_8));
+		}
+		catch (RuntimeException e)
+		{
+			respond(exchange, 500, "text/plain", ("Couldn't render tile: " + e).getBytes(StandardCharsets.UTF_8));
+		}
+		finally
+		{
+			exchange.close();
+		}
+	}
+
+	private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException
+	{
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, body.length);
+
+		try (OutputStream out = exchange.getResponseBody())
+		{
+			out.write(body);
+		}
+	}
+
+	/**
+	 * The encoded tile, from the cache if present. 
+	 * Two requests for the same missing tile may both render it.
+	 * @return The PNG encoded tile.
+	 */
+	byte[] tile(int z, int x, int y)
+	{
+		String key = z + "/" + x + "/" + y;
+		byte[] png;
+
+		synchronized (cache)
+		{
+			png = cache.get(key);
+		}
+
+		if (png == null)
+		{
+			png = encode(render(z, x, y));
+
+			synchronized (cache)
+			{
+				cache.put(key, png);
+			}
+		}
+
+		return png;
+	}
+
+	/**
+	 * Render a tile one pixel at a time, finding the tromino covering the square under each pixel
+	 * with the orientation logic of Rows, so no part of the board is tiled.
+	 * 
+	 * A tile covering fewer than 256 x 256 squares draws each square as a block of pixels. 
+	 * A tile covering more samples one square in every size / 256 in each direction, as Rows.image does.
+	 */
+	BufferedImage render(int z, int x, int y)
+	{
+		int size = n >> z;
+
+		// Tile rows count down from the top, board rows count up from the bottom.
+		int startX = x * size;
+		int startY = ((1 << z) - 1 - y) * size;
+
+		BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+		int[] row = new int[TILE_SIZE];
+
+		for (int py = 0; py < TILE_SIZE; py++)
+		{
+			int squareY = startY + (int) ((long) (TILE_SIZE - 1 - py) * size / TILE_SIZE);
+
+			for (int px = 0; px < TILE_SIZE; px++)
+			{
+				int squareX = startX + (int) ((long) px * size / TILE_SIZE);
+				row[px] = Rows.argbOf(Rows.cover(n, deficient.getX(), deficient.getY(), squareX, squareY));
+			}
+
+			image.setRGB(0, py, TILE_SIZE, 1, row, 0, TILE_SIZE);
+		}
+
+		return image;
+	}
+
+	private static byte[] encode(BufferedImage image)
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try
+		{
+			ImageIO.write(image, "png", out);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+
+		return out.toByteArray();
+	}
+
+	public static void main(String[] args)
+	{
+		try
+		{
+			int boardSize = Integer.parseInt(args[0]);
+			Position deficient = new Position(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+			int port = args.length > 3 ? Integer.parseInt(args[3]) : 8080;
+			int cachedTiles = args.length > 4 ? Integer.parseInt(args[4]) : 4096;
+
+			TileServer server = new TileServer(boardSize, deficient, cachedTiles);
+			server.start(new InetSocketAddress(port));
+
+			System.out.println(String.format("Serving zoom %d to %d at http://localhost:%d/{z}/{x}/{y}",
+					server.getMinZoom(), server.getMaxZoom(), server.getAddress().getPort()));
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			Boards.printAndExit("Usage: boardSize missingSquareX missingSquareY [port] [cachedTiles]", -1);
+		}
+		catch (NumberFormatException e)
+		{
+			Boards.printAndExit("Couldn't parse input.", -2);
+		}
+		catch (IllegalArgumentException e)
+		{
+			Boards.printAndExit(e.getMessage(), -3);
+		}
+		catch (IOException e)
+		{
+			Boards.printAndExit("Couldn't start server: " + e.getMessage(), -5);
+		}
+	}
+}
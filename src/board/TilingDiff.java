@@ -0,0 +1,373 @@
+package board;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The differences between two tilings of the same board size.
+ * 
+ * Each tiling is indexed by a quadtree of content hashes (see Index). Two tilings are compared
+ * from the root down, skipping every quadrant whose hashes match, so the work done is proportional
+ * to the number of quadrants that changed rather than to the size of the board.
+ * 
+ * The result lists the placements only in the first tiling (removed), the placements only in
+ * the second tiling (added), and rectangles bounding the squares those placements cover.
+ */
+public class TilingDiff
+{
+	/**
+	 * A tiling indexed for comparison.
+	 * 
+	 * The board is divided into blocks of up to 8 x 8 squares, each tromino belonging to the block
+	 * that holds its centre. A block's hash is the sum of a hash of each of its trominoes, and a
+	 * quadrant's hash is the sum of its four children's, so placing or removing a tromino only
+	 * updates the hashes on one path from a block to the root.
+	 */
+	public static class Index
+	{
+		private static final int MAX_BLOCK = 8;
+
+		private final int n;
+		private final int block;
+		private final int levels;
+
+		private final Map<Position, Tromino> trominoes = new HashMap<>();
+
+		// hashes[level][y * side + x], level 0 being the whole board and the last level the blocks.
+		private final long[][] hashes;
+
+		/**
+		 * @param n The board size in squares. Must be a power of 2.
+		 * @param trominoes The trominoes on the board keyed by centre, as in Main.getTrominoes. They are copied.
+		 */
+		public Index(int n, Map<Position, Tromino> trominoes)
+		{
+			if (!Boards.positivePowerOfTwo(n))
+			{
+				throw new IllegalArgumentException("Board size must be a positive power of two");
+			}
+
+			this.n = n;
+			this.block = Math.min(MAX_BLOCK, n);
+			this.levels = Integer.numberOfTrailingZeros(n / block) + 1;
+
+			hashes = new long[levels][];
+
+			for (int level = 0; level < levels; level++)
+			{
+				hashes[level] = new long[1 << (2 * level)];
+			}
+
+			trominoes.forEach(this::put);
+		}
+
+		public int getBoardSize()
+		{
+			return n;
+		}
+
+		/**
+		 * Place a tromino, replacing any tromino with the same centre.
+		 * @param centre The centre of the tromino. Must be on the board.
+		 * @param t The tromino.
+		 */
+		public void put(Position centre, Tromino t)
+		{
+			if (!Boards.withinBounds(centre, n))
+			{
+				throw new IllegalArgumentException("Centre must be within the board");
+			}
+
+			Tromino previous = trominoes.put(centre, t);
+
+			if (previous != null)
+			{
+				update(centre, -hash(centre, previous));
+			}
+
+			update(centre, hash(centre, t));
+		}
+
+		/**
+		 * Remove the tromino centred at a position, if there is one.
+		 * @param centre The centre of the tromino.
+		 */
+		public void remove(Position centre)
+		{
+			Tromino previous = trominoes.remove(centre);
+
+			if (previous != null)
+			{
+				update(centre, -hash(centre, previous));
+			}
+		}
+
+		/**
+		 * Add to the hash of every quadrant, from the block holding centre up to the whole board.
+		 */
+		private void update(Position centre, long delta)
+		{
+			int x = centre.getX() / block;
+			int y = centre.getY() / block;
+
+			for (int level = levels - 1; level >= 0; level--, x >>= 1, y >>= 1)
+			{
+				hashes[level][(y << level) + x] += delta;
+			}
+		}
+
+		/**
+		 * A 64 bit mix of the packed placement, see Recording.
+		 */
+		private static long hash(Position centre, Tromino t)
+		{
+			long h = Recording.pack(centre.getX(), centre.getY(), t);
+			h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+			h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+			return h ^ (h >>> 31);
+		}
+	}
+
+	private final List<Pair<Position, Tromino>> removed = new ArrayList<>();
+	private final List<Pair<Position, Tromino>> added = new ArrayList<>();
+	private final List<Pair<Position, Position>> regions = new ArrayList<>();
+
+	// The changed blocks in the order they were found, the squares each block's changes cover, and the index of each block.
+	private final List<Long> blocks = new ArrayList<>();
+	private final List<Pair<Position, Position>> blockRegions = new ArrayList<>();
+	private final Map<Long, Integer> blockIndex = new HashMap<>();
+
+	private TilingDiff()
+	{
+	}
+
+	/**
+	 * Compare two tilings of the same size.
+	 * 
+	 * @param before The first tiling.
+	 * @param after The second tiling.
+	 * @return The differences from before to after.
+	 * @throws IllegalArgumentException Iff the tilings are of different board sizes.
+	 */
+	public static TilingDiff compare(Index before, Index after)
+	{
+		if (before.n != after.n)
+		{
+			throw new IllegalArgumentException("Tilings must be of the same board size");
+		}
+
+		TilingDiff diff = new TilingDiff();
+		diff.compare(before, after, 0, 0, 0);
+		diff.mergeRegions();
+
+		return diff;
+	}
+
+	/**
+	 * Compare two maps of trominoes, as returned by Main.getTrominoes.
+	 * Indexing is linear in the number of trominoes; keep the Index when comparing the same tiling again.
+	 * @see #compare(Index, Index)
+	 */
+	public static TilingDiff compare(int n, Map<Position, Tromino> before, Map<Position, Tromino> after)
+	{
+		return compare(new Index(n, before), new Index(n, after));
+	}
+
+	/**
+	 * @return The placements in the first tiling but not the second, by centre.
+	 */
+	public List<Pair<Position, Tromino>> getRemoved()
+	{
+		return Collections.unmodifiableList(removed);
+	}
+
+	/**
+	 * @return The placements in the second tiling but not the first, by centre.
+	 */
+	public List<Pair<Position, Tromino>> getAdded()
+	{
+		return Collections.unmodifiableList(added);
+	}
+
+	/**
+	 * @return Rectangles covering every square of a removed or added tromino, one for each group of neighbouring
+	 * changed blocks whose squares touch, as the start and end
+	 * positions of the rectangle as defined by Position.between.
+	 */
+	public List<Pair<Position, Position>> getRegions()
+	{
+		return Collections.unmodifiableList(regions);
+	}
+
+	/**
+	 * @return True iff the two tilings are the same.
+	 */
+	public boolean isEmpty()
+	{
+		return removed.isEmpty() && added.isEmpty();
+	}
+
+	private void compare(Index before, Index after, int level, int x, int y)
+	{
+		int i = (y << level) + x;
+
+		// Equal hashes are taken to mean equal contents. A collision of two 64 bit sums would hide
+		// the quadrant's changes, but is vanishingly unlikely.
+		if (before.hashes[level][i] == after.hashes[level][i])
+		{
+			return;
+		}
+
+		if (level < before.levels - 1)
+		{
+			compare(before, after, level + 1, 2 * x, 2 * y);
+			compare(before, after, level + 1, 2 * x + 1, 2 * y);
+			compare(before, after, level + 1, 2 * x, 2 * y + 1);
+			compare(before, after, level + 1, 2 * x + 1, 2 * y + 1);
+			return;
+		}
+
+		compareBlock(before, after, x, y);
+	}
+
+	/**
+	 * Compare every centre in a block, recording changed placements and the squares they cover.
+	 * Only called when the block's hashes differ, so at least one centre has changed.
+	 */
+	private void compareBlock(Index before, Index after, int blockX, int blockY)
+	{
+		int startX = blockX * before.block;
+		int startY = blockY * before.block;
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+
+		for (int x = startX; x < startX + before.block; x++)
+		{
+			for (int y = startY; y < startY + before.block; y++)
+			{
+				Position centre = new Position(x, y);
+				Tromino b = before.trominoes.get(centre);
+				Tromino a = after.trominoes.get(centre);
+
+				if (b == a)
+				{
+					continue;
+				}
+
+				if (b != null)
+				{
+					removed.add(new Pair<>(centre, b));
+				}
+
+				if (a != null)
+				{
+					added.add(new Pair<>(centre, a));
+				}
+
+				// Every tromino lies within the two by two block whose top right square is its centre.
+				minX = Math.min(minX, x - 1);
+				minY = Math.min(minY, y - 1);
+				maxX = Math.max(maxX, x + 1);
+				maxY = Math.max(maxY, y + 1);
+			}
+		}
+
+		blockIndex.put(blockKey(blockX, blockY), blocks.size());
+		blocks.add(blockKey(blockX, blockY));
+		blockRegions.add(new Pair<>(new Position(Math.max(0, minX), Math.max(0, minY)), new Position(Math.min(before.n, maxX), Math.min(before.n, maxY))));
+	}
+
+	/**
+	 * Join the regions of neighbouring blocks that overlap or touch, with a union find over the
+	 * changed blocks, so the merge is linear in the number of changed blocks. A region's squares
+	 * reach at most one square past its block, so only the eight neighbouring blocks can touch it.
+	 */
+	private void mergeRegions()
+	{
+		int[] parent = new int[blockRegions.size()];
+
+		for (int i = 0; i < parent.length; i++)
+		{
+			parent[i] = i;
+		}
+
+		// Each pair of neighbours is checked once, from the block to its left or below.
+		final int[][] neighbours = {{1, 0}, {-1, 1}, {0, 1}, {1, 1}};
+
+		for (int i = 0; i < parent.length; i++)
+		{
+			long block = blocks.get(i);
+
+			for (int[] d : neighbours)
+			{
+				Integer j = blockIndex.get(blockKey(blockX(block) + d[0], blockY(block) + d[1]));
+
+				if (j != null && touch(blockRegions.get(i), blockRegions.get(j)))
+				{
+					parent[find(parent, i)] = find(parent, j);
+				}
+			}
+		}
+
+		Map<Integer, Integer> regionOfRoot = new HashMap<>();
+
+		for (int i = 0; i < parent.length; i++)
+		{
+			Pair<Position, Position> r = blockRegions.get(i);
+			Integer k = regionOfRoot.putIfAbsent(find(parent, i), regions.size());
+
+			if (k == null)
+			{
+				regions.add(r);
+			}
+			else
+			{
+				Pair<Position, Position> m = regions.get(k);
+				regions.set(k, new Pair<>(
+						new Position(Math.min(m.left().getX(), r.left().getX()), Math.min(m.left().getY(), r.left().getY())),
+						new Position(Math.max(m.right().getX(), r.right().getX()), Math.max(m.right().getY(), r.right().getY()))));
+			}
+		}
+	}
+
+	private static int find(int[] parent, int i)
+	{
+		while (parent[i] != i)
+		{
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+
+		return i;
+	}
+
+	/**
+	 * @return True iff two rectangles overlap or share an edge or corner.
+	 */
+	private static boolean touch(Pair<Position, Position> a, Pair<Position, Position> b)
+	{
+		return a.left().getX() <= b.right().getX() && b.left().getX() <= a.right().getX()
+				&& a.left().getY() <= b.right().getY() && b.left().getY() <= a.right().getY();
+	}
+
+	private static long blockKey(int x, int y)
+	{
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	private static int blockX(long key)
+	{
+		return (int) (key >> 32);
+	}
+
+	private static int blockY(long key)
+	{
+		return (int) key;
+	}
+}
@@ -0,0 +1,420 @@
+package board;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Solves many independent boards concurrently.
+ * 
+ * Boards are solved with Orientations rather than Main, so a solution is a single array of packed
+ * placements (see Recording) rather than a map of Positions. Jobs are queued by board size and each
+ * size is drained by up to `drainersPerSize` tasks at once on virtual threads (see Threads), so jobs
+ * of the same size run as a batch sharing that size's arrays:
+ * - the centres of every square of the recursion, which only depend on the size, are packed once,
+ *   read by every drainer, and every job only adds its orientations
+ * - placement arrays are pooled and reused once a Solution is closed
+ */
+public class TilingService implements AutoCloseable
+{
+	/**
+	 * The most placement arrays kept for reuse for each board size.
+	 */
+	private static final int POOLED_PER_SIZE = 16;
+
+	/**
+	 * A solved board. Close it once finished with to return its placement array to the pool.
+	 * 
+	 * Placements are in level order: the middle of the whole board first, then the middles of
+	 * the four quadrants, and so on down to the two by two squares.
+	 */
+	public static class Solution implements AutoCloseable
+	{
+		private final Batch batch;
+		private final Position hole;
+		private long[] placements;
+
+		private Solution(Batch batch, Position hole, long[] placements)
+		{
+			this.batch = batch;
+			this.hole = hole;
+			this.placements = placements;
+		}
+
+		public int getBoardSize()
+		{
+			return batch.n;
+		}
+
+		public Position getDeficient()
+		{
+			return hole;
+		}
+
+		/**
+		 * @return The number of trominoes, (n * n - 1) / 3.
+		 */
+		public int size()
+		{
+			return batch.count;
+		}
+
+		public int centreX(int i)
+		{
+			return Recording.unpackX(placement(i));
+		}
+
+		public int centreY(int i)
+		{
+			return Recording.unpackY(placement(i));
+		}
+
+		public Tromino tromino(int i)
+		{
+			return Recording.unpackTromino(placement(i));
+		}
+
+		/**
+		 * Report every tromino, keyed by centre as in Main.getTrominoes.
+		 * @param placed Called with the centre and tromino of each placement.
+		 */
+		public void forEach(BiConsumer<Position, Tromino> placed)
+		{
+			for (int i = 0; i < batch.count; i++)
+			{
+				long p = placement(i);
+				placed.accept(new Position(Recording.unpackX(p), Recording.unpackY(p)), Recording.unpackTromino(p));
+			}
+		}
+
+		private long placement(int i)
+		{
+			if (placements == null)
+			{
+				throw new IllegalStateException("Solution has been closed");
+			}
+
+			if (i < 0 || i >= batch.count)
+			{
+				throw new IndexOutOfBoundsException("Placement " + i + " of " + batch.count);
+			}
+
+			return placements[i];
+		}
+
+		/**
+		 * Return the placement array to the pool. The solution can not be read afterwards.
+		 */
+		@Override
+		public void close()
+		{
+			if (placements != null)
+			{
+				batch.pool.offer(placements);
+				placements = null;
+			}
+		}
+	}
+
+	private static class Job
+	{
+		private final Position hole;
+		private final CompletableFuture<Solution> result = new CompletableFuture<>();
+
+		private Job(Position hole)
+		{
+			this.hole = hole;
+		}
+	}
+
+	/**
+	 * The queue and scratch arrays for one board size.
+	 */
+	private static class Batch
+	{
+		private final int n;
+		private final int count;
+
+		private final Queue<Job> jobs = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger drainers = new AtomicInteger();
+		private final Queue<long[]> pool = new ArrayBlockingQueue<>(POOLED_PER_SIZE);
+
+		// The packed centre of every square of the recursion in level order, without an orientation.
+		// Written once, then only read.
+		private volatile long[] middles;
+
+		private Batch(int n)
+		{
+			this.n = n;
+			this.count = (int) (((long) n * n - 1) / 3);
+		}
+	}
+
+	private final ExecutorService executor = Threads.newPerTaskExecutor("tiling-service");
+	private final Map<Integer, Batch> batches = new ConcurrentHashMap<>();
+	private final int drainersPerSize;
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final long started = System.nanoTime();
+
+	/**
+	 * Create a service that solves up to one board of each size per processor at once.
+	 */
+	public TilingService()
+	{
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param drainersPerSize The most boards of the same size solved at once.
+	 * @throws IllegalArgumentException Iff drainersPerSize is not positive.
+	 */
+	public TilingService(int drainersPerSize)
+	{
+		if (drainersPerSize < 1)
+		{
+			throw new IllegalArgumentException("At least one drainer per size is required");
+		}
+
+		this.drainersPerSize = drainersPerSize;
+	}
+
+	/**
+	 * Queue a board to be solved.
+	 * 
+	 * @param n The board size in squares. Must be a power of 2.
+	 * @param hole The missing square on the board.
+	 * @return The solution, once solved.
+	 * @throws IllegalArgumentException Iff the board is invalid, see Main.
+	 * @throws RejectedExecutionException Iff the service has been closed.
+	 */
+	public CompletableFuture<Solution> submit(int n, Position hole)
+	{
+		Boards.check(n, hole);
+
+		if (executor.isShutdown())
+		{
+			throw new RejectedExecutionException("Service has been closed");
+		}
+
+		Batch batch = batches.computeIfAbsent(n, Batch::new);
+		Job job = new Job(hole);
+
+		queued.incrementAndGet();
+		submitted.incrementAndGet();
+		batch.jobs.add(job);
+
+		try
+		{
+			schedule(batch);
+		}
+		catch (RejectedExecutionException e)
+		{
+			// Closed since the check above. Unless a running drainer has already taken the job, withdraw it.
+			if (batch.jobs.remove(job))
+			{
+				queued.decrementAndGet();
+				submitted.decrementAndGet();
+				job.result.completeExceptionally(e);
+				throw e;
+			}
+		}
+
+		return job.result;
+	}
+
+	/**
+	 * Start another task to drain the batch, unless drainersPerSize are already running.
+	 * @throws RejectedExecutionException Iff the service has been closed.
+	 */
+	private void schedule(Batch batch)
+	{
+		if (!acquireDrainer(batch))
+		{
+			return;
+		}
+
+		try
+		{
+			executor.execute(() -> drain(batch));
+		}
+		catch (RejectedExecutionException e)
+		{
+			batch.drainers.decrementAndGet();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return True iff a drainer slot was taken for the batch.
+	 */
+	private boolean acquireDrainer(Batch batch)
+	{
+		int current;
+
+		do
+		{
+			current = batch.drainers.get();
+
+			if (current >= drainersPerSize)
+			{
+				return false;
+			}
+		}
+		while (!batch.drainers.compareAndSet(current, current + 1));
+
+		return true;
+	}
+
+	private void drain(Batch batch)
+	{
+		do
+		{
+			Job job;
+
+			while ((job = batch.jobs.poll()) != null)
+			{
+				queued.decrementAndGet();
+
+				try
+				{
+					job.result.complete(solve(batch, job.hole));
+				}
+				catch (RuntimeException e)
+				{
+					job.result.completeExceptionally(e);
+				}
+
+				completed.incrementAndGet();
+			}
+
+			batch.drainers.decrementAndGet();
+
+			// A job added after the last poll, while every slot was taken, would otherwise wait for the next submit.
+		}
+		while (!batch.jobs.isEmpty() && acquireDrainer(batch));
+	}
+
+	private static Solution solve(Batch batch, Position hole)
+	{
+		int n = batch.n;
+		int levels = Integer.numberOfTrailingZeros(n);
+
+		long[] middles = batch.middles;
+
+		if (middles == null)
+		{
+			synchronized (batch)
+			{
+				if (batch.middles == null)
+				{
+					batch.middles = middles(n, batch.count);
+				}
+
+				middles = batch.middles;
+			}
+		}
+
+		long[] placements = batch.pool.poll();
+
+		if (placements == null)
+		{
+			placements = new long[batch.count];
+		}
+
+		int i = 0;
+
+		for (int level = 0; level < levels; level++)
+		{
+			int shift = levels - level;
+
+			for (int qy = 0; qy < (1 << level); qy++)
+			{
+				for (int qx = 0; qx < (1 << level); qx++, i++)
+				{
+					// Tromino ordinals are the quadrant of the deficient square, see Orientations.
+					placements[i] = middles[i] | Orientations.holeQuadrant(shift, hole.getX(), hole.getY(), qx, qy);
+				}
+			}
+		}
+
+		return new Solution(batch, hole, placements);
+	}
+
+	/**
+	 * @return The packed centres of every square of the recursion of an n x n board, in level order.
+	 */
+	private static long[] middles(int n, int count)
+	{
+		int levels = Integer.numberOfTrailingZeros(n);
+		long[] middles = new long[count];
+		int i = 0;
+
+		for (int level = 0; level < levels; level++)
+		{
+			int size = n >> level;
+
+			for (int qy = 0; qy < (1 << level); qy++)
+			{
+				for (int qx = 0; qx < (1 << level); qx++)
+				{
+					middles[i++] = Recording.pack(qx * size + size / 2, qy * size + size / 2, Tromino.UR);
+				}
+			}
+		}
+
+		return middles;
+	}
+
+	/**
+	 * @return The number of boards submitted.
+	 */
+	public long getSubmitted()
+	{
+		return submitted.get();
+	}
+
+	/**
+	 * @return The number of boards solved, or failed.
+	 */
+	public long getCompleted()
+	{
+		return completed.get();
+	}
+
+	/**
+	 * @return The number of boards waiting to be solved.
+	 */
+	public int getQueueDepth()
+	{
+		return queued.get();
+	}
+
+	/**
+	 * @return The mean number of boards completed per second since the service was created.
+	 */
+	public double getThroughput()
+	{
+		double seconds = (System.nanoTime() - started) / 1e9;
+		return seconds > 0 ? completed.get() / seconds : 0;
+	}
+
+	/**
+	 * Stop accepting boards. Boards already submitted are still solved.
+	 */
+	@Override
+	public void close()
+	{
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,166 @@
+package board;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The Vector API implementation of Rows.
+ * 
+ * Only loaded when jdk.incubator.vector is in the boot layer, see Rows.vectorAvailable.
+ * 
+ * For each level at which the row is central, the quadrant holding each square's deficient square
+ * is looked up once per square of the recursion (n / 2^level of them) from Orientations. The squares
+ * of the row are then processed a vector at a time: on levels where squares of the recursion are
+ * at least as wide as a vector every lane shares one quadrant, otherwise a fixed shuffle spreads
+ * consecutive quadrants over the lanes.
+ */
+final class VectorRows
+{
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+	private static final int LANES = SPECIES.length();
+	private static final int LANE_BITS = Integer.numberOfTrailingZeros(LANES);
+
+	private static final int BLACK = 0xFF000000;
+
+	private static final IntVector IOTA = IntVector.zero(SPECIES).addIndex(1);
+
+	/**
+	 * SHUFFLES[shift] sends lane i to quadrant i >> shift, for squares narrower than a vector.
+	 */
+	private static final VectorShuffle<Integer>[] SHUFFLES = shuffles();
+
+	private VectorRows()
+	{
+	}
+
+	static int lanes()
+	{
+		return LANES;
+	}
+
+	/**
+	 * See Rows.scalarRow. Requires n >= lanes().
+	 */
+	static void row(int n, int holeX, int holeY, int y, int[] codes, int[] argb)
+	{
+		int levels = Integer.numberOfTrailingZeros(n);
+
+		// The levels at which row y is central, and their quadrant tables.
+		int[] shifts = new int[levels];
+		int[][] quadrants = new int[levels][];
+		int active = 0;
+
+		for (int shift = 1; shift <= levels; shift++)
+		{
+			int size = 1 << shift;
+
+			if (((y + (size >> 1) + 1) & (size - 1)) >= 2)
+			{
+				continue;
+			}
+
+			int squares = n >> shift;
+			int[] q = new int[squares + LANES];
+
+			for (int qx = 0; qx < squares; qx++)
+			{
+				q[qx] = Orientations.holeQuadrant(shift, holeX, holeY, qx, y >> shift);
+			}
+
+			shifts[active] = shift;
+			quadrants[active] = q;
+			active++;
+		}
+
+		for (int base = 0; base < n; base += LANES)
+		{
+			IntVector x = IOTA.add(base);
+			IntVector code = IntVector.broadcast(SPECIES, Rows.HOLE);
+			IntVector centreX = IntVector.zero(SPECIES);
+			IntVector centreY = IntVector.zero(SPECIES);
+
+			for (int level = 0; level < active; level++)
+			{
+				int shift = shifts[level];
+				int size = 1 << shift;
+				int half = size >> 1;
+
+				IntVector quadrant = shift >= LANE_BITS
+						? IntVector.broadcast(SPECIES, quadrants[level][base >> shift])
+						: IntVector.fromArray(SPECIES, quadrants[level], base >> shift).rearrange(SHUFFLES[shift]);
+
+				VectorMask<Integer> central = x.add(half + 1).and(size - 1).compare(VectorOperators.LT, 2);
+
+				IntVector square = x.lanewise(VectorOperators.ASHR, shift - 1).and(1).or(((y >> (shift - 1)) & 1) << 1);
+				VectorMask<Integer> covered = central.and(square.compare(VectorOperators.NE, quadrant));
+
+				code = code.blend(quadrant, covered);
+				centreX = centreX.blend(x.and(-size).add(half), covered);
+				centreY = centreY.blend((y & -size) + half, covered);
+			}
+
+			if (codes != null)
+			{
+				code.intoArray(codes, base);
+			}
+
+			if (argb != null)
+			{
+				colours(centreX, centreY)
+						.blend(BLACK, code.compare(VectorOperators.EQ, Rows.HOLE))
+						.intoArray(argb, base);
+			}
+		}
+	}
+
+	/**
+	 * See Rows.rgbOf.
+	 */
+	private static IntVector colours(IntVector centreX, IntVector centreY)
+	{
+		IntVector h = centreX.mul(0x9E3779B1).lanewise(VectorOperators.XOR, centreY.mul(0x85EBCA6B));
+		h = h.lanewise(VectorOperators.XOR, h.lanewise(VectorOperators.LSHR, 16));
+		h = h.mul(0x7FEB352D);
+		h = h.lanewise(VectorOperators.XOR, h.lanewise(VectorOperators.LSHR, 15));
+
+		IntVector r = component(h.lanewise(VectorOperators.LSHR, 16));
+		IntVector g = component(h.lanewise(VectorOperators.LSHR, 8));
+		IntVector b = component(h);
+
+		return r.lanewise(VectorOperators.LSHL, 16)
+				.or(g.lanewise(VectorOperators.LSHL, 8))
+				.or(b)
+				.or(BLACK);
+	}
+
+	private static IntVector component(IntVector h)
+	{
+		final int minColourValue = 30;
+		final int maxColour = 225;
+
+		return h.and(0xFF).mul(maxColour).lanewise(VectorOperators.LSHR, 8).add(minColourValue);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static VectorShuffle<Integer>[] shuffles()
+	{
+		VectorShuffle<Integer>[] s = new VectorShuffle[LANE_BITS + 1];
+
+		for (int shift = 0; shift <= LANE_BITS; shift++)
+		{
+			int[] lanes = new int[LANES];
+
+			for (int i = 0; i < LANES; i++)
+			{
+				lanes[i] = i >> shift;
+			}
+
+			s[shift] = VectorShuffle.fromArray(SPECIES, lanes, 0);
+		}
+
+		return s;
+	}
+}
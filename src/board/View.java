@@ -3,6 +3,7 @@ package board;
 import java.awt.BorderLayout;
 
 import javax.swing.JFrame;
+import javax.swing.JPanel;
 
 /**
  * A basic graphical display for a tromino board.
@@ -10,7 +11,7 @@ import javax.swing.JFrame;
  */
 public class View extends JFrame
 {
-	public View(Canvas canvas)
+	public View(JPanel canvas)
 	{
 		super("Tromino tilier");
 
@@ -0,0 +1,94 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import board.Main;
+import board.Position;
+import board.Tromino;
+
+/**
+ * Tiles every n x n board, for every power of two n up to a limit, with the deficient square
+ * in every position, and checks that each tiling covers every square but the deficient one exactly once.
+ * 
+ * Boards of the same size are tiled in parallel. The time taken for each size is printed,
+ * which shows how solve time grows with n.
+ * 
+ * The largest board size defaults to 64 and can be changed with the system property
+ * tromino.stress.maxSize, for example:
+ * mvn test -Dtest=AllDeficientSquares -Dtromino.stress.maxSize=256
+ */
+public class AllDeficientSquares
+{
+	private static final int MAX_SIZE = Integer.getInteger("tromino.stress.maxSize", 64);
+
+	@Test
+	public void everyDeficientSquare_Tiled_CoversBoardExactly()
+	{
+		StringBuilder timings = new StringBuilder(String.format("%8s %10s %12s %14s%n", "n", "boards", "total ms", "us per board"));
+
+		for (int n = 2; n <= MAX_SIZE; n *= 2)
+		{
+			final int size = n;
+			AtomicInteger failures = new AtomicInteger();
+
+			long start = System.nanoTime();
+
+			IntStream.range(0, n * n).parallel().forEach(i -> {
+				if (!coversExactly(size, new Position(i % size, i / size)))
+				{
+					failures.incrementAndGet();
+				}
+			});
+
+			long elapsed = System.nanoTime() - start;
+
+			assertEquals("Boards of size " + n + " not tiled exactly", 0, failures.get());
+
+			timings.append(String.format("%8d %10d %12.1f %14.2f%n", n, n * n, elapsed / 1e6, elapsed / 1e3 / (n * n)));
+		}
+
+		System.out.print(timings);
+	}
+
+	/**
+	 * @return True iff tiling the board covers every square except the deficient square exactly once
+	 * and no tromino leaves the board.
+	 */
+	private static boolean coversExactly(int n, Position deficient)
+	{
+		Main board = new Main(n, deficient);
+		board.tile();
+
+		BitSet covered = new BitSet(n * n);
+		covered.set(deficient.getY() * n + deficient.getX());
+
+		for (Entry<Position, Tromino> e : board.getTrominoes().entrySet())
+		{
+			for (Position p : e.getValue().apply(e.getKey()))
+			{
+				if (p.getX() < 0 || p.getX() >= n || p.getY() < 0 || p.getY() >= n)
+				{
+					return false;
+				}
+
+				int i = p.getY() * n + p.getX();
+
+				if (covered.get(i))
+				{
+					return false;
+				}
+
+				covered.set(i);
+			}
+		}
+
+		return covered.cardinality() == n * n && board.getTrominoes().size() == (n * n - 1) / 3;
+	}
+}
@@ -0,0 +1,210 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import board.ConcurrentBoard;
+import board.Position;
+import board.Tromino;
+
+/**
+ * Tests for placing and removing trominoes on a ConcurrentBoard.
+ */
+public class ConcurrentPlacement
+{
+	@Test
+	public void emptyBoard_Place_SquaresOccupied()
+	{
+		ConcurrentBoard b = new ConcurrentBoard(4, new Position(0, 0));
+
+		assertTrue(b.tryPlace(Tromino.UR, 1, 1));
+
+		assertTrue(b.isOccupied(0, 1));
+		assertTrue(b.isOccupied(1, 1));
+		assertTrue(b.isOccupied(1, 0));
+		assertFalse(b.isOccupied(0, 2));
+		assertEquals(Optional.of(Tromino.UR), b.get(1, 1));
+	}
+
+	@Test
+	public void deficientSquare_Place_Rejected()
+	{
+		ConcurrentBoard b = new ConcurrentBoard(4, new Position(0, 0));
+
+		// LL centred at (1, 1) covers (0, 0)
+		assertFalse(b.tryPlace(Tromino.LL, 1, 1));
+		assertFalse(b.isOccupied(0, 1));
+		assertFalse(b.isOccupied(1, 0));
+	}
+
+	@Test
+	public void offBoard_Place_Rejected()
+	{
+		ConcurrentBoard b = new ConcurrentBoard(4, new Position(0, 0));
+
+		assertFalse(b.tryPlace(Tromino.UR, 0, 2));
+		assertFalse(b.tryPlace(Tromino.LL, 4, 4));
+	}
+
+	@Test
+	public void partialOverlap_Place_RolledBack()
+	{
+		ConcurrentBoard b = new ConcurrentBoard(4, new Position(3, 3));
+
+		// Occupies (1, 2), (2, 2), (2, 1)
+		assertTrue(b.tryPlace(Tromino.UR, 2, 2));
+
+		// UR at (1, 2) covers (0, 2), (1, 2), (1, 1); (0, 2) is claimed before (1, 2) 
+		// is found to be taken, so it must be released again.
+		assertFalse(b.tryPlace(Tromino.UR, 1, 2));
+		assertFalse(b.isOccupied(0, 2));
+		assertFalse(b.isOccupied(1, 1));
+
+		// UL at (1, 3) covers (0, 3), (1, 3), (0, 2)
+		assertTrue(b.tryPlace(Tromino.UL, 1, 3));
+	}
+
+	@Test
+	public void placedTromino_Remove_SquaresReleased()
+	{
+		ConcurrentBoard b = new ConcurrentBoard(4, new Position(0, 0));
+		b.tryPlace(Tromino.UR, 1, 1);
+
+		assertEquals(Optional.of(Tromino.UR), b.remove(1, 1));
+		assertEquals(Optional.empty(), b.remove(1, 1));
+		assertFalse(b.isOccupied(1, 1));
+		assertTrue(b.getTrominoes().isEmpty());
+	}
+
+	@Test
+	public void manyThreads_SameSquares_ExactlyOneWins() throws Exception
+	{
+		final int threads = 8;
+		final int rounds = 1000;
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+		try
+		{
+			for (int round = 0; round < rounds; round++)
+			{
+				ConcurrentBoard b = new ConcurrentBoard(4, new Position(3, 3));
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<Boolean>> results = new ArrayList<>();
+
+				for (int i = 0; i < threads; i++)
+				{
+					Tromino t = Tromino.values()[i % Tromino.values().length];
+					results.add(pool.submit(() -> {
+						start.await();
+						return b.tryPlace(t, 1, 1);
+					}));
+				}
+
+				start.countDown();
+
+				int placed = 0;
+				for (Future<Boolean> f : results)
+				{
+					placed += f.get() ? 1 : 0;
+				}
+
+				assertEquals(1, placed);
+				assertEquals(1, b.getTrominoes().size());
+			}
+		}
+		finally
+		{
+			pool.shutdownNow();
+			pool.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void manyThreads_PlaceRemoveCycles_OccupiedMatchesCentres() throws Exception
+	{
+		final int threads = 8;
+		final int cycles = 20000;
+
+		// A small board so that nearly every placement overlaps another thread's centres.
+		ConcurrentBoard b = new ConcurrentBoard(4, new Position(0, 0));
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = new ArrayList<>();
+
+		try
+		{
+			for (int i = 0; i < threads; i++)
+			{
+				Random random = new Random(i);
+
+				results.add(pool.submit(() -> {
+					start.await();
+
+					for (int c = 0; c < cycles; c++)
+					{
+						int x = 1 + random.nextInt(3);
+						int y = 1 + random.nextInt(3);
+
+						if (random.nextBoolean())
+						{
+							b.tryPlace(Tromino.values()[random.nextInt(4)], x, y);
+						}
+						else
+						{
+							b.remove(x, y);
+						}
+					}
+
+					return null;
+				}));
+			}
+
+			start.countDown();
+
+			for (Future<?> f : results)
+			{
+				f.get();
+			}
+		}
+		finally
+		{
+			pool.shutdownNow();
+			pool.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		// Every recorded tromino owns its squares alone, and no other square is left claimed.
+		Set<Position> covered = new HashSet<>();
+		covered.add(b.getDeficient());
+
+		for (Map.Entry<Position, Tromino> e : b.getTrominoes().entrySet())
+		{
+			for (Position p : e.getValue().apply(e.getKey()))
+			{
+				assertTrue("Overlap at " + p, covered.add(p));
+			}
+		}
+
+		for (int x = 0; x < 4; x++)
+		{
+			for (int y = 0; y < 4; y++)
+			{
+				assertEquals("Square " + x + " " + y, covered.contains(new Position(x, y)), b.isOccupied(x, y));
+			}
+		}
+	}
+}
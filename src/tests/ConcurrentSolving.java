@@ -0,0 +1,159 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import board.Main;
+import board.Position;
+import board.TilingService;
+import board.TilingService.Solution;
+import board.Tromino;
+
+/**
+ * Tests for solving boards through a TilingService.
+ */
+public class ConcurrentSolving
+{
+	@Test
+	public void manySubmissions_Solved_MatchTile() throws Exception
+	{
+		try (TilingService service = new TilingService())
+		{
+			List<CompletableFuture<Solution>> futures = new ArrayList<>();
+			List<Position> holes = new ArrayList<>();
+			List<Integer> sizes = new ArrayList<>();
+
+			for (int n = 2; n <= 32; n *= 2)
+			{
+				for (int i = 0; i < 20; i++)
+				{
+					Position hole = new Position((i * 7) % n, (i * 13) % n);
+
+					sizes.add(n);
+					holes.add(hole);
+					futures.add(service.submit(n, hole));
+				}
+			}
+
+			for (int i = 0; i < futures.size(); i++)
+			{
+				Main board = new Main(sizes.get(i), holes.get(i));
+				board.tile();
+
+				try (Solution s = futures.get(i).get(10, TimeUnit.SECONDS))
+				{
+					Map<Position, Tromino> solved = new HashMap<>();
+					s.forEach(solved::put);
+
+					assertEquals(board.getTrominoes(), solved);
+					assertEquals(board.getTrominoes().size(), s.size());
+				}
+			}
+
+			assertEquals(futures.size(), service.getSubmitted());
+			assertEquals(futures.size(), service.getCompleted());
+			assertEquals(0, service.getQueueDepth());
+			assertTrue(service.getThroughput() > 0);
+		}
+	}
+
+	@Test
+	public void sameSize_TwoDrainers_SolvedAtOnce() throws Exception
+	{
+		try (TilingService service = new TilingService(2))
+		{
+			CountDownLatch both = new CountDownLatch(2);
+			Thread test = Thread.currentThread();
+
+			// Each solution holds up its drainer until both are solved, which needs two drainers of the same size.
+			for (int i = 0; i < 2; i++)
+			{
+				service.submit(1024, new Position(i, 0)).thenRun(() -> {
+					both.countDown();
+
+					try
+					{
+						if (Thread.currentThread() != test)
+						{
+							both.await(10, TimeUnit.SECONDS);
+						}
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+
+			assertTrue(both.await(10, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void closedService_Submit_Rejected()
+	{
+		TilingService service = new TilingService();
+		service.close();
+
+		try
+		{
+			service.submit(4, new Position(0, 0));
+		}
+		catch (RejectedExecutionException e)
+		{
+			assertEquals(0, service.getQueueDepth());
+			return;
+		}
+
+		fail("A rejected execution exception should have been thrown for a closed service");
+	}
+
+	@Test
+	public void closedSolution_Read_IllegalStateException_IsThrown() throws Exception
+	{
+		try (TilingService service = new TilingService())
+		{
+			Solution s = service.submit(4, new Position(0, 0)).get();
+			s.close();
+
+			try
+			{
+				s.tromino(0);
+			}
+			catch (IllegalStateException e)
+			{
+				return;
+			}
+
+			fail("An illegal state exception should have been thrown for a closed solution");
+		}
+	}
+
+	@Test
+	public void invalidBoard_Submit_IllegalArgumentException_IsThrown()
+	{
+		try (TilingService service = new TilingService())
+		{
+			try
+			{
+				service.submit(6, new Position(0, 0));
+			}
+			catch (IllegalArgumentException e)
+			{
+				return;
+			}
+
+			fail("An illegal argument exception should have been thrown for a board size that is not a power of two");
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import board.Main;
+import board.Orientations;
+import board.Position;
+import board.Tromino;
+
+/**
+ * Compares Orientations with the trominoes Main.tile places, for every square of every
+ * level of the recursion, with the deficient square in every position.
+ */
+public class OrientationOracle
+{
+	private static final int MAX_SIZE = 32;
+
+	@Test
+	public void everyDeficientSquare_Centre_MatchesTile()
+	{
+		for (int n = 2; n <= MAX_SIZE; n *= 2)
+		{
+			int levels = Integer.numberOfTrailingZeros(n);
+
+			for (int x = 0; x < n; x++)
+			{
+				for (int y = 0; y < n; y++)
+				{
+					Position hole = new Position(x, y);
+
+					Main board = new Main(n, hole);
+					board.tile();
+					Map<Position, Tromino> trominoes = board.getTrominoes();
+
+					for (int level = 0; level < levels; level++)
+					{
+						for (int qx = 0; qx < (1 << level); qx++)
+						{
+							for (int qy = 0; qy < (1 << level); qy++)
+							{
+								Tromino expected = trominoes.get(Orientations.middle(n, level, qx, qy));
+
+								assertEquals("n = " + n + ", hole " + hole + ", level " + level + ", square (" + qx + ", " + qy + ")",
+										expected, Orientations.centre(n, x, y, level, qx, qy));
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void mortonIndex_Centre_MatchesCoordinates()
+	{
+		int n = 16;
+		Position hole = new Position(11, 2);
+
+		// Index 0b1101 is x = 0b11 from the even bits and y = 0b10 from the odd bits.
+		assertEquals(Orientations.centre(n, 11, 2, 2, 3, 2), Orientations.centre(n, hole, 2, 0b1101));
+
+		for (int q = 0; q < 64; q++)
+		{
+			int qx = (q & 1) | ((q >> 1) & 2) | ((q >> 2) & 4);
+			int qy = ((q >> 1) & 1) | ((q >> 2) & 2) | ((q >> 3) & 4);
+
+			assertEquals(Orientations.centre(n, 11, 2, 3, qx, qy), Orientations.centre(n, hole, 3, q));
+		}
+	}
+}
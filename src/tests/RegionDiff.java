@@ -0,0 +1,122 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import board.Main;
+import board.Pair;
+import board.Position;
+import board.TilingDiff;
+import board.TilingDiff.Index;
+import board.Tromino;
+
+/**
+ * Tests for comparing tilings with TilingDiff.
+ */
+public class RegionDiff
+{
+	private static Map<Position, Tromino> tiling(int n, Position hole)
+	{
+		Main board = new Main(n, hole);
+		board.tile();
+		return board.getTrominoes();
+	}
+
+	@Test
+	public void sameTiling_Compare_Empty()
+	{
+		Map<Position, Tromino> t = tiling(64, new Position(5, 9));
+		TilingDiff diff = TilingDiff.compare(64, t, new HashMap<>(t));
+
+		assertTrue(diff.isEmpty());
+		assertTrue(diff.getRegions().isEmpty());
+	}
+
+	@Test
+	public void movedHole_Compare_MatchesSetDifference()
+	{
+		for (int n = 2; n <= 64; n *= 2)
+		{
+			Map<Position, Tromino> before = tiling(n, new Position(0, 0));
+			Map<Position, Tromino> after = tiling(n, new Position(n - 1, n / 2));
+			TilingDiff diff = TilingDiff.compare(n, before, after);
+
+			Set<Pair<Position, Tromino>> removed = new HashSet<>();
+			Set<Pair<Position, Tromino>> added = new HashSet<>();
+			before.forEach((p, t) -> { if (t != after.get(p)) removed.add(new Pair<>(p, t)); });
+			after.forEach((p, t) -> { if (t != before.get(p)) added.add(new Pair<>(p, t)); });
+
+			assertEquals(removed, toSet(diff, true));
+			assertEquals(added, toSet(diff, false));
+
+			// Every square of a changed tromino is in a region.
+			for (Pair<Position, Tromino> c : removed)
+			{
+				for (Position square : c.right().apply(c.left()))
+				{
+					assertTrue(diff.getRegions().stream().anyMatch(r -> square.between(r.left(), r.right())));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void editedIndex_Compare_OnlyEdit()
+	{
+		Map<Position, Tromino> t = tiling(128, new Position(3, 3));
+		Index before = new Index(128, t);
+		Index after = new Index(128, t);
+
+		Position centre = t.keySet().iterator().next();
+		after.remove(centre);
+
+		TilingDiff diff = TilingDiff.compare(before, after);
+		assertEquals(1, diff.getRemoved().size());
+		assertEquals(centre, diff.getRemoved().get(0).left());
+		assertTrue(diff.getAdded().isEmpty());
+		assertEquals(1, diff.getRegions().size());
+
+		after.put(centre, t.get(centre));
+		assertTrue(TilingDiff.compare(before, after).isEmpty());
+	}
+
+	@Test
+	public void scatteredEdits_Compare_RegionPerGroup()
+	{
+		int n = 1024;
+		Map<Position, Tromino> t = tiling(n, new Position(0, 0));
+		Index before = new Index(n, t);
+		Index after = new Index(n, t);
+
+		// Centres at the edges of neighbouring blocks, so their squares touch across the block boundary.
+		after.remove(new Position(7, 9));
+		after.remove(new Position(9, 9));
+
+		// Far from the others, and from each other.
+		after.remove(new Position(501, 501));
+		after.remove(new Position(1001, 13));
+
+		TilingDiff diff = TilingDiff.compare(before, after);
+
+		assertEquals(4, diff.getRemoved().size());
+		assertEquals(3, diff.getRegions().size());
+		assertTrue(diff.getRegions().contains(new Pair<>(new Position(6, 8), new Position(10, 10))));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void differentSizes_Compare_Rejected()
+	{
+		TilingDiff.compare(new Index(4, new HashMap<>()), new Index(8, new HashMap<>()));
+	}
+
+	private static Set<Pair<Position, Tromino>> toSet(TilingDiff diff, boolean removed)
+	{
+		return new HashSet<>(removed ? diff.getRemoved() : diff.getAdded());
+	}
+}
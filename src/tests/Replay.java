@@ -0,0 +1,106 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import board.AnimatedCanvas;
+import board.Main;
+import board.Pair;
+import board.Position;
+import board.Recording;
+import board.Rows;
+import board.Tromino;
+
+/**
+ * Tests for recording the order of a tiling and replaying it into frames.
+ */
+public class Replay
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void tiledBoard_Recorded_MatchesPlacementOrder()
+	{
+		for (int n = 2; n <= 64; n *= 2)
+		{
+			for (Position hole : new Position[] {new Position(0, 0), new Position(n / 2 - 1, n - 1), new Position(n - 1, n / 2)})
+			{
+				List<Pair<Position, Tromino>> placed = new ArrayList<>();
+				new Main(n, hole).tile((c, t) -> placed.add(new Pair<>(c, t)));
+
+				Recording r = Recording.record(n, hole);
+				assertEquals(placed.size(), r.size());
+
+				for (int i = 0; i < r.size(); i++)
+				{
+					assertEquals(placed.get(i), new Pair<>(r.centre(i), r.tromino(i)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void largeCoordinates_Packed_RoundTrip()
+	{
+		int[] coordinates = {0, 1, 65535, 1 << 20, (1 << 30) - 1};
+
+		for (int x : coordinates)
+		{
+			for (int y : coordinates)
+			{
+				for (Tromino t : Tromino.values())
+				{
+					long p = Recording.pack(x, y, t);
+
+					assertEquals(x, Recording.unpackX(p));
+					assertEquals(y, Recording.unpackY(p));
+					assertEquals(t, Recording.unpackTromino(p));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void recording_WriteFrames_LastFrameIsTiling() throws Exception
+	{
+		int n = 16;
+		int squarePixels = 3;
+		int perFrame = 7;
+		Position hole = new Position(9, 4);
+
+		Recording r = Recording.record(n, hole);
+		Path directory = folder.newFolder().toPath();
+
+		int frames = AnimatedCanvas.writeFrames(r, squarePixels, perFrame, directory);
+		assertEquals((r.size() + perFrame - 1) / perFrame + 1, frames);
+
+		BufferedImage last = ImageIO.read(directory.resolve(String.format("frame-%06d.png", frames - 1)).toFile());
+		assertEquals(n * squarePixels, last.getWidth());
+
+		Main board = new Main(n, hole);
+		board.tile();
+
+		for (Entry<Position, Tromino> e : board.getTrominoes().entrySet())
+		{
+			for (Position p : e.getValue().apply(e.getKey()))
+			{
+				int pixel = last.getRGB(p.getX() * squarePixels + 1, (n - 1 - p.getY()) * squarePixels + 1);
+				assertEquals(Rows.colourOf(e.getKey()).getRGB(), pixel);
+			}
+		}
+
+		assertEquals(0xFF000000, last.getRGB(hole.getX() * squarePixels + 1, (n - 1 - hole.getY()) * squarePixels + 1));
+	}
+}
@@ -0,0 +1,118 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import board.Main;
+import board.Position;
+import board.Rows;
+import board.Tromino;
+
+/**
+ * Compares rows computed by Rows with boards tiled by Main.tile.
+ */
+public class RowGeneration
+{
+	private static final int MAX_SIZE = 64;
+
+	@Test
+	public void everyDeficientSquare_Rows_MatchTile()
+	{
+		for (int n = 2; n <= MAX_SIZE; n *= 2)
+		{
+			for (int hx = 0; hx < n; hx += Math.max(1, n / 16))
+			{
+				for (int hy = 0; hy < n; hy += Math.max(1, n / 16))
+				{
+					assertRowsMatch(n, new Position(hx, hy));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void vectorProperty_Rows_ScalarWhenDisabled()
+	{
+		// Surefire runs this class a second time with tromino.vector=false, see pom.xml.
+		if ("false".equals(System.getProperty("tromino.vector")))
+		{
+			assertFalse(Rows.vectorised());
+		}
+	}
+
+	@Test
+	public void deficientSquare_Pixel_IsBlack()
+	{
+		int[] row = new int[8];
+		Rows.pixels(8, new Position(5, 2), 2, row);
+
+		assertEquals(0xFF000000, row[5]);
+	}
+
+	@Test
+	public void largeBoard_Image_SampledFromRows()
+	{
+		final int n = 64;
+		final int side = 16;
+		final int stride = n / side;
+		Position hole = new Position(9, 50);
+
+		BufferedImage image = Rows.image(n, hole, side);
+		int[] row = new int[n];
+
+		assertEquals(side, image.getWidth());
+		assertEquals(side, image.getHeight());
+
+		for (int py = 0; py < side; py++)
+		{
+			Rows.pixels(n, hole, (side - 1 - py) * stride, row);
+
+			for (int px = 0; px < side; px++)
+			{
+				assertEquals(row[px * stride] & 0xFFFFFF, image.getRGB(px, py) & 0xFFFFFF);
+			}
+		}
+	}
+
+	private static void assertRowsMatch(int n, Position hole)
+	{
+		Main board = new Main(n, hole);
+		board.tile();
+
+		int[] expectedCodes = new int[n * n];
+		int[] expectedPixels = new int[n * n];
+
+		for (Entry<Position, Tromino> e : board.getTrominoes().entrySet())
+		{
+			for (Position p : e.getValue().apply(e.getKey()))
+			{
+				expectedCodes[p.getY() * n + p.getX()] = e.getValue().ordinal();
+				expectedPixels[p.getY() * n + p.getX()] = Rows.colourOf(e.getKey()).getRGB();
+			}
+		}
+
+		expectedCodes[hole.getY() * n + hole.getX()] = Rows.HOLE;
+		expectedPixels[hole.getY() * n + hole.getX()] = 0xFF000000;
+
+		int[] codes = new int[n];
+		int[] pixels = new int[n];
+
+		for (int y = 0; y < n; y++)
+		{
+			Rows.orientations(n, hole, y, codes);
+			Rows.pixels(n, hole, y, pixels);
+
+			for (int x = 0; x < n; x++)
+			{
+				String where = "n = " + n + ", hole " + hole + ", square (" + x + ", " + y + ")";
+
+				assertEquals(where, expectedCodes[y * n + x], codes[x]);
+				assertEquals(where, expectedPixels[y * n + x], pixels[x]);
+			}
+		}
+	}
+}
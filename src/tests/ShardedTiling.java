@@ -0,0 +1,105 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import board.Main;
+import board.Placements;
+import board.Position;
+import board.ShardCoordinator;
+import board.ShardedBoard;
+import board.Tromino;
+
+/**
+ * Runs the coordinator and its worker processes on this machine and compares 
+ * the sharded board with a board tiled in one process.
+ */
+public class ShardedTiling
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void fourShards_Merged_MatchesSingleProcess() throws Exception
+	{
+		assertMatchesSingleProcess(16, new Position(5, 12), 1);
+	}
+
+	@Test
+	public void sixteenShards_Merged_MatchesSingleProcess() throws Exception
+	{
+		assertMatchesSingleProcess(16, new Position(15, 0), 2);
+	}
+
+	@Test
+	public void workerHeap_Merged_MatchesSingleProcess() throws Exception
+	{
+		Path directory = folder.newFolder().toPath();
+		ShardedBoard board = new ShardCoordinator(16, new Position(3, 9), 1, directory, 2, Arrays.asList("-Xmx32m")).run();
+
+		Main single = new Main(16, new Position(3, 9));
+		single.tile();
+
+		assertEquals(single.getTrominoes(), board.getTrominoes());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void invalidWorkerOption_Run_Fails() throws Exception
+	{
+		new ShardCoordinator(8, new Position(0, 0), 1, folder.newFolder().toPath(), 2, Arrays.asList("-XX:NoSuchOption")).run();
+	}
+
+	@Test
+	public void square_ShardAt_ContainsSquare() throws Exception
+	{
+		ShardedBoard board = new ShardCoordinator(8, new Position(0, 0), 1, folder.newFolder().toPath(), 2).run();
+
+		ShardedBoard.Shard s = board.shardAt(new Position(6, 1)).get();
+
+		assertEquals(new Position(4, 0), s.getOrigin());
+		assertEquals(4, s.getSize());
+		assertFalse(board.shardAt(new Position(8, 0)).isPresent());
+	}
+
+	@Test
+	public void shardsSmallerThanTwoByTwo_IllegalArgumentException_IsThrown() throws Exception
+	{
+		try
+		{
+			new ShardCoordinator(8, new Position(0, 0), 3, folder.newFolder().toPath(), 1);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return;
+		}
+
+		fail("An illegal argument exception should have been thrown for 1x1 shards");
+	}
+
+	private void assertMatchesSingleProcess(int n, Position hole, int levels) throws Exception
+	{
+		Path directory = folder.newFolder().toPath();
+
+		ShardedBoard board = new ShardCoordinator(n, hole, levels, directory, 4).run();
+
+		Path merged = directory.resolve("board.txt");
+		board.merge(merged);
+
+		Map<Position, Tromino> read = new HashMap<>();
+		Placements.read(merged, read::put);
+
+		Main single = new Main(n, hole);
+		single.tile();
+
+		assertEquals(single.getTrominoes(), read);
+		assertEquals(single.getTrominoes(), board.getTrominoes());
+	}
+}
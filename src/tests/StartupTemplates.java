@@ -0,0 +1,100 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import board.Main;
+import board.Orientations;
+import board.Pair;
+import board.Position;
+import board.Templates;
+import board.Tromino;
+
+/**
+ * Tests for the tilings the launcher writes, computed by Orientations.forEach or read from Templates.
+ */
+public class StartupTemplates
+{
+	@Test
+	public void anyHole_ForEach_MatchesTile()
+	{
+		for (int n = 2; n <= 32; n *= 2)
+		{
+			for (int i = 0; i < n * n; i += 7)
+			{
+				Position hole = new Position(i % n, i / n);
+				Main board = new Main(n, hole);
+				board.tile();
+
+				Map<Position, Tromino> visited = new HashMap<>();
+				Orientations.forEach(n, hole, visited::put);
+
+				assertEquals(board.getTrominoes(), visited);
+			}
+		}
+	}
+
+	@Test
+	public void writtenTable_Mapped_MatchesForEach() throws IOException
+	{
+		Path file = Files.createTempFile("templates", ".bin");
+
+		try
+		{
+			Templates.write(file, 16);
+			Templates templates = Templates.map(file);
+
+			assertEquals(16, templates.getMaxSize());
+			assertTrue(templates.covers(16));
+			assertFalse(templates.covers(32));
+			assertFalse(templates.covers(12));
+
+			for (int n = 2; n <= 16; n *= 2)
+			{
+				for (int y = 0; y < n; y++)
+				{
+					for (int x = 0; x < n; x++)
+					{
+						Position hole = new Position(x, y);
+						List<Pair<Position, Tromino>> expected = new ArrayList<>();
+						List<Pair<Position, Tromino>> mapped = new ArrayList<>();
+
+						Orientations.forEach(n, hole, (c, t) -> expected.add(new Pair<>(c, t)));
+						templates.forEach(n, hole, (c, t) -> mapped.add(new Pair<>(c, t)));
+
+						assertEquals(expected, mapped);
+					}
+				}
+			}
+		}
+		finally
+		{
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void otherFile_Mapped_Rejected() throws IOException
+	{
+		Path file = Files.createTempFile("templates", ".bin");
+
+		try
+		{
+			Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+			Templates.map(file);
+		}
+		finally
+		{
+			Files.delete(file);
+		}
+	}
+}
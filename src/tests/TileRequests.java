@@ -0,0 +1,197 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+import board.Main;
+import board.Position;
+import board.Rows;
+import board.TileServer;
+import board.Tromino;
+
+/**
+ * Requests tiles from a running TileServer.
+ */
+public class TileRequests
+{
+	@Test
+	public void everyZoom_Requested_MatchesTiledBoard() throws Exception
+	{
+		int n = 8;
+		Position hole = new Position(1, 6);
+
+		TileServer server = new TileServer(n, hole, 16);
+		server.start(new InetSocketAddress("localhost", 0));
+
+		try
+		{
+			Main board = new Main(n, hole);
+			board.tile();
+
+			for (int z = 0; z <= 3; z++)
+			{
+				int tiles = 1 << z;
+				int squares = n / tiles;
+				int square = TileServer.TILE_SIZE / squares;
+
+				for (int tx = 0; tx < tiles; tx++)
+				{
+					for (int ty = 0; ty < tiles; ty++)
+					{
+						BufferedImage tile = get(server, "/" + z + "/" + tx + "/" + ty);
+
+						assertEquals(TileServer.TILE_SIZE, tile.getWidth());
+						assertEquals(TileServer.TILE_SIZE, tile.getHeight());
+
+						// Tile rows count down from the top of the board.
+						for (int x = 0; x < squares; x++)
+						{
+							for (int y = 0; y < squares; y++)
+							{
+								Position p = new Position(tx * squares + x, n - 1 - (ty * squares + y));
+								int pixel = tile.getRGB(x * square + square / 2, y * square + square / 2) & 0xFFFFFF;
+
+								assertEquals(expectedColour(board, p), pixel);
+							}
+						}
+					}
+				}
+			}
+		}
+		finally
+		{
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void largeBoard_LowZoom_SampledFromTiledBoard() throws Exception
+	{
+		int n = 512;
+		Position hole = new Position(300, 17);
+
+		TileServer server = new TileServer(n, hole, 16);
+		server.start(new InetSocketAddress("localhost", 0));
+
+		try
+		{
+			assertEquals(0, server.getMinZoom());
+
+			Main board = new Main(n, hole);
+			board.tile();
+
+			Map<Position, Integer> colours = new HashMap<>();
+
+			for (Entry<Position, Tromino> e : board.getTrominoes().entrySet())
+			{
+				for (Position p : e.getValue().apply(e.getKey()))
+				{
+					colours.put(p, Rows.colourOf(e.getKey()).getRGB() & 0xFFFFFF);
+				}
+			}
+
+			// Zoom 0 samples every other square, zoom 1 covers 256 x 256 squares exactly.
+			for (int z = 0; z <= 1; z++)
+			{
+				int squares = n >> z;
+				int stride = squares / TileServer.TILE_SIZE;
+
+				for (int tx = 0; tx < (1 << z); tx++)
+				{
+					for (int ty = 0; ty < (1 << z); ty++)
+					{
+						BufferedImage tile = get(server, "/" + z + "/" + tx + "/" + ty);
+
+						for (int px = 0; px < TileServer.TILE_SIZE; px++)
+						{
+							for (int py = 0; py < TileServer.TILE_SIZE; py++)
+							{
+								Position p = new Position(tx * squares + px * stride, n - 1 - (ty * squares + py * stride) - (stride - 1));
+								assertEquals(p.toString(), (int) colours.getOrDefault(p, 0), tile.getRGB(px, py) & 0xFFFFFF);
+							}
+						}
+					}
+				}
+			}
+		}
+		finally
+		{
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void outOfRange_Requested_NotFound() throws Exception
+	{
+		TileServer server = new TileServer(8, new Position(0, 0), 16);
+		server.start(new InetSocketAddress("localhost", 0));
+
+		try
+		{
+			assertEquals(404, status(server, "/4/0/0"));
+			assertEquals(404, status(server, "/1/2/0"));
+			assertEquals(400, status(server, "/1/a/0"));
+		}
+		finally
+		{
+			server.stop(0);
+		}
+	}
+
+	private static int expectedColour(Main board, Position square)
+	{
+		for (Entry<Position, Tromino> e : board.getTrominoes().entrySet())
+		{
+			if (e.getValue().apply(e.getKey()).contains(square))
+			{
+				return Rows.colourOf(e.getKey()).getRGB() & 0xFFFFFF;
+			}
+		}
+
+		return 0;
+	}
+
+	private static HttpURLConnection open(TileServer server, String path) throws Exception
+	{
+		return (HttpURLConnection) new URL("http://localhost:" + server.getAddress().getPort() + path).openConnection();
+	}
+
+	private static int status(TileServer server, String path) throws Exception
+	{
+		HttpURLConnection c = open(server, path);
+
+		try
+		{
+			return c.getResponseCode();
+		}
+		finally
+		{
+			c.disconnect();
+		}
+	}
+
+	private static BufferedImage get(TileServer server, String path) throws Exception
+	{
+		HttpURLConnection c = open(server, path);
+
+		assertEquals(200, c.getResponseCode());
+		assertEquals("image/png", c.getContentType());
+
+		try (InputStream in = c.getInputStream())
+		{
+			return ImageIO.read(in);
+		}
+	}
+}
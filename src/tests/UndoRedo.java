@@ -0,0 +1,148 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import board.History;
+import board.Position;
+import board.Recording;
+import board.Tromino;
+
+/**
+ * Tests for editing a board through a History.
+ */
+public class UndoRedo
+{
+	@Test
+	public void placedTromino_Undo_SquaresReleased()
+	{
+		History h = new History(4, new Position(0, 0));
+
+		assertTrue(h.place(Tromino.UR, 1, 1));
+		assertTrue(h.undo());
+
+		assertFalse(h.getBoard().isOccupied(1, 1));
+		assertEquals(0, h.version());
+		assertFalse(h.undo());
+	}
+
+	@Test
+	public void removedTromino_UndoRedo_Restored()
+	{
+		History h = new History(4, new Position(0, 0));
+
+		h.place(Tromino.UR, 1, 1);
+		assertEquals(Optional.of(Tromino.UR), h.remove(1, 1));
+
+		assertTrue(h.undo());
+		assertEquals(Optional.of(Tromino.UR), h.getBoard().get(1, 1));
+
+		assertTrue(h.redo());
+		assertEquals(Optional.empty(), h.getBoard().get(1, 1));
+		assertFalse(h.redo());
+	}
+
+	@Test
+	public void rejectedEdits_NotLogged()
+	{
+		History h = new History(4, new Position(0, 0));
+
+		assertFalse(h.place(Tromino.LL, 1, 1));
+		assertEquals(Optional.empty(), h.remove(2, 2));
+
+		assertEquals(0, h.latest());
+	}
+
+	@Test
+	public void editAfterUndo_Redo_Discarded()
+	{
+		History h = new History(4, new Position(0, 0));
+
+		h.place(Tromino.UR, 1, 1);
+		h.place(Tromino.UR, 3, 3);
+		h.undo();
+		h.place(Tromino.LL, 3, 3);
+
+		assertEquals(2, h.latest());
+		assertFalse(h.redo());
+		assertEquals(Optional.of(Tromino.LL), h.getBoard().get(3, 3));
+	}
+
+	@Test
+	public void fullTiling_JumpAndSnapshot_MatchEveryVersion()
+	{
+		int n = 16;
+		Position hole = new Position(5, 9);
+		Recording tiling = Recording.record(n, hole);
+
+		// A small interval so the snapshots cross several checkpoints.
+		History h = new History(n, hole, 8);
+		Map<Integer, Map<Position, Tromino>> expected = new HashMap<>();
+		Map<Position, Tromino> current = new HashMap<>();
+
+		expected.put(0, new HashMap<>(current));
+
+		for (int i = 0; i < tiling.size(); i++)
+		{
+			Position c = tiling.centre(i);
+
+			assertTrue(h.place(tiling.tromino(i), c.getX(), c.getY()));
+			current.put(c, tiling.tromino(i));
+
+			// Remove every third tromino again so the log holds removals too.
+			if (i % 3 == 0)
+			{
+				h.remove(c.getX(), c.getY());
+				expected.put(h.version() - 1, new HashMap<>(current));
+				current.remove(c);
+			}
+
+			expected.put(h.version(), new HashMap<>(current));
+		}
+
+		for (int v : new int[] {h.latest(), 0, 17, 3, h.latest() - 1, 40, 8})
+		{
+			h.jumpTo(v);
+
+			assertEquals(v, h.version());
+			assertEquals(expected.get(v), h.getBoard().getTrominoes());
+		}
+
+		for (int v = 0; v <= h.latest(); v++)
+		{
+			assertEquals(expected.get(v), h.snapshot(v));
+		}
+	}
+
+	@Test
+	public void editAfterJumpBack_Snapshot_CheckpointsDiscarded()
+	{
+		int n = 16;
+		Position hole = new Position(0, 0);
+		Recording tiling = Recording.record(n, hole);
+
+		History h = new History(n, hole, 1);
+
+		for (int i = 0; i < tiling.size(); i++)
+		{
+			h.place(tiling.tromino(i), tiling.centre(i).getX(), tiling.centre(i).getY());
+		}
+
+		// Checkpoints past version 40 describe the discarded edits and must not be used.
+		h.jumpTo(40);
+		Position c = tiling.centre(39);
+		assertEquals(Optional.of(tiling.tromino(39)), h.remove(c.getX(), c.getY()));
+
+		Map<Position, Tromino> expected = h.snapshot(40);
+		expected.remove(c);
+
+		assertEquals(41, h.latest());
+		assertEquals(expected, h.snapshot(41));
+		assertEquals(h.getBoard().getTrominoes(), h.snapshot(41));
+	}
+}